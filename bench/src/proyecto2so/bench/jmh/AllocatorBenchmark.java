@@ -0,0 +1,67 @@
+package proyecto2so.bench.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import proyecto2so.core.SystemConfig;
+import proyecto2so.storage.AllocationStrategy;
+import proyecto2so.storage.BlockAllocator;
+import proyecto2so.storage.Disk;
+
+/**
+ * Asignar y liberar una cadena sobre un disco ya fragmentado, por estrategia de asignación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AllocatorBenchmark {
+
+    @Param({"LINKED", "FIRST_FIT_EXTENT", "BEST_FIT_EXTENT", "NEXT_FIT"})
+    public String strategy;
+
+    @Param({"1", "16"})
+    public int chainLength;
+
+    @Param({"65536"})
+    public int diskBlocks;
+
+    private BlockAllocator allocator;
+
+    @Setup
+    public void setUp() {
+        Disk disk = new Disk(new SystemConfig(diskBlocks, SystemConfig.DEFAULT_BLOCK_SIZE_BYTES,
+                SystemConfig.DEFAULT_MAX_BUFFER_SLOTS, SystemConfig.DEFAULT_MAX_PROCESSES, null));
+        allocator = new BlockAllocator(disk);
+        allocator.setStrategy(AllocationStrategy.valueOf(strategy));
+        // Se llena la mitad del disco con cadenas de tamaño variable y se libera una de cada dos
+        SplittableRandom random = new SplittableRandom(42);
+        int[] heads = new int[diskBlocks / 8];
+        int count = 0;
+        while (count < heads.length && disk.getFreeBlockCount() > diskBlocks / 2) {
+            heads[count++] = allocator.allocateChain("f" + count, 1 + random.nextInt(8));
+        }
+        for (int i = 0; i < count; i += 2) {
+            allocator.releaseChain(heads[i]);
+        }
+    }
+
+    @Benchmark
+    public int allocateAndRelease() {
+        int head = allocator.allocateChain("bench", chainLength);
+        allocator.releaseChain(head);
+        return head;
+    }
+}
@@ -0,0 +1,61 @@
+package proyecto2so.bench.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import proyecto2so.storage.BufferManager;
+import proyecto2so.storage.BufferPolicy;
+
+/**
+ * {@link BufferManager#fetchBlock} por política con una traza sesgada sobre cuatro veces más
+ * bloques que slots, de modo que se mezclan aciertos y reemplazos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BufferFetchBenchmark {
+
+    private static final int TRACE_LENGTH = 1 << 16;
+
+    @Param({"FIFO", "LRU", "LFU", "CLOCK", "TWO_Q", "ARC", "W_TINY_LFU"})
+    public String policy;
+
+    @Param({"16", "1024"})
+    public int slots;
+
+    private BufferManager buffer;
+    private int[] trace;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        buffer = new BufferManager(slots);
+        buffer.setPolicy(BufferPolicy.valueOf(policy));
+        SplittableRandom random = new SplittableRandom(42);
+        int span = slots * 4;
+        trace = new int[TRACE_LENGTH];
+        for (int i = 0; i < trace.length; i++) {
+            trace[i] = (int) (span * Math.pow(random.nextDouble(), 3));
+        }
+    }
+
+    @Benchmark
+    public int fetch() {
+        int block = trace[cursor];
+        cursor = (cursor + 1) & (TRACE_LENGTH - 1);
+        return buffer.fetchBlock(block).getHitCount();
+    }
+}
@@ -0,0 +1,74 @@
+package proyecto2so.bench.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import proyecto2so.filesystem.FileSystemNode;
+import proyecto2so.filesystem.FileSystemService;
+import proyecto2so.storage.BlockAllocator;
+import proyecto2so.storage.Disk;
+
+/**
+ * Resolución de rutas con {@link FileSystemService#findNode} en un árbol de directorios de
+ * profundidad y ramificación fijas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FindNodeBenchmark {
+
+    private static final int DEPTH = 3;
+
+    @Param({"4", "32"})
+    public int fanout;
+
+    private FileSystemService fileSystem;
+    private String[] paths;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        fileSystem = new FileSystemService(new BlockAllocator(new Disk()));
+        int leaves = 1;
+        for (int d = 0; d < DEPTH; d++) {
+            leaves *= fanout;
+        }
+        String[] level = {""};
+        for (int d = 0; d < DEPTH; d++) {
+            String[] next = new String[level.length * fanout];
+            for (int p = 0; p < level.length; p++) {
+                for (int c = 0; c < fanout; c++) {
+                    String name = "d" + c;
+                    fileSystem.createDirectory(level[p].isEmpty() ? "/" : level[p], name);
+                    next[p * fanout + c] = level[p] + "/" + name;
+                }
+            }
+            level = next;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        paths = new String[1024];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = level[random.nextInt(leaves)];
+        }
+    }
+
+    @Benchmark
+    public FileSystemNode findNode() {
+        String path = paths[cursor];
+        cursor = (cursor + 1) & (paths.length - 1);
+        return fileSystem.findNode(path);
+    }
+}
@@ -0,0 +1,77 @@
+package proyecto2so.bench.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import proyecto2so.core.SystemConfig;
+import proyecto2so.filesystem.FileSystemService;
+import proyecto2so.persistence.PersistenceService;
+import proyecto2so.process.ProcessQueue;
+import proyecto2so.scheduler.DiskRequestQueue;
+import proyecto2so.storage.BlockAllocator;
+import proyecto2so.storage.BufferManager;
+import proyecto2so.storage.Disk;
+
+/**
+ * Guardar y cargar un snapshot completo con el disco lleno a la mitad.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PersistenceBenchmark {
+
+    @Param({"240", "16384"})
+    public int diskBlocks;
+
+    private PersistenceService persistence;
+    private File snapshot;
+    private File loaded;
+
+    @Setup
+    public void setUp() throws IOException {
+        SystemConfig config = new SystemConfig(diskBlocks, SystemConfig.DEFAULT_BLOCK_SIZE_BYTES,
+                SystemConfig.DEFAULT_MAX_BUFFER_SLOTS, SystemConfig.DEFAULT_MAX_PROCESSES, null);
+        Disk disk = new Disk(config);
+        FileSystemService fileSystem = new FileSystemService(new BlockAllocator(disk));
+        BufferManager buffer = new BufferManager(disk, config.getMaxBufferSlots());
+        fileSystem.attachBuffer(buffer);
+        persistence = new PersistenceService(fileSystem, disk, new ProcessQueue(), new DiskRequestQueue(), buffer);
+        for (int i = 0; i < diskBlocks / 8; i++) {
+            fileSystem.createFile("/", "f" + i, 4, SystemConfig.ROOT_USER, true, "contenido del archivo " + i, -1);
+        }
+        snapshot = File.createTempFile("p2so-bench", ".snap");
+        loaded = File.createTempFile("p2so-bench", ".snap");
+        persistence.save(loaded.getPath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        snapshot.delete();
+        loaded.delete();
+    }
+
+    @Benchmark
+    public boolean save() {
+        return persistence.save(snapshot.getPath());
+    }
+
+    @Benchmark
+    public int load() {
+        return persistence.load(loaded.getPath());
+    }
+}
@@ -0,0 +1,65 @@
+package proyecto2so.bench.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import proyecto2so.scheduler.DiskRequest;
+import proyecto2so.scheduler.DiskRequestQueue;
+import proyecto2so.scheduler.DiskScheduler;
+import proyecto2so.scheduler.SchedulerFactory;
+
+/**
+ * Un ciclo de servicio con la cola en estado estable: {@code selectNext}, quitar la solicitud
+ * elegida y encolar una nueva en un bloque aleatorio.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchedulerSelectBenchmark {
+
+    private static final int DISK_BLOCKS = 65536;
+
+    @Param({"FIFO", "SSTF", "SCAN", "C-SCAN", "LOOK", "C-LOOK", "N-STEP-SCAN", "FSCAN", "DEADLINE"})
+    public String scheduler;
+
+    @Param({"64", "16384"})
+    public int queueSize;
+
+    private DiskScheduler selected;
+    private DiskRequestQueue queue;
+    private SplittableRandom random;
+    private int head;
+
+    @Setup
+    public void setUp() {
+        selected = SchedulerFactory.create(scheduler, DISK_BLOCKS);
+        queue = new DiskRequestQueue(queueSize);
+        queue.setBatching(selected.isBatched());
+        random = new SplittableRandom(42);
+        for (int i = 0; i < queueSize; i++) {
+            queue.enqueue(new DiskRequest(null, random.nextInt(DISK_BLOCKS)));
+        }
+    }
+
+    @Benchmark
+    public int selectAndServe() {
+        DiskRequest request = selected.selectNext(head, queue);
+        queue.remove(request);
+        head = request.getTargetBlock();
+        queue.enqueue(new DiskRequest(null, random.nextInt(DISK_BLOCKS)));
+        return head;
+    }
+}
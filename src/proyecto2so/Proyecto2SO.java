@@ -4,11 +4,18 @@
  */
 package proyecto2so;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import javax.swing.SwingUtilities;
+import proyecto2so.core.SystemConfig;
 import proyecto2so.filesystem.FileSystemService;
 import proyecto2so.storage.BlockAllocator;
 import proyecto2so.storage.BufferManager;
 import proyecto2so.storage.Disk;
+import proyecto2so.storage.HeapBlockStore;
+import proyecto2so.storage.MirroredVolume;
+import proyecto2so.storage.StripedVolume;
+import proyecto2so.storage.Volume;
 import proyecto2so.ui.MainWindow;
 
 /**
@@ -16,18 +23,61 @@ import proyecto2so.ui.MainWindow;
  */
 public class Proyecto2SO {
 
+    /**
+     * Acepta {@code --config=archivo.properties} y sobrescrituras {@code --clave=valor}
+     * (ver {@link SystemConfig}).
+     */
     public static void main(String[] args) {
+        final SystemConfig config;
+        try {
+            config = SystemConfig.fromArgs(args);
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println("Configuracion invalida: " + ex.getMessage());
+            System.exit(2);
+            return;
+        }
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
-                Disk disk = new Disk();
+                Volume volume = openVolume(config);
+                Disk disk = volume.getLogicalDisk();
                 BlockAllocator allocator = new BlockAllocator(disk);
                 FileSystemService fileSystem = new FileSystemService(allocator);
-                BufferManager buffer = new BufferManager();
-                MainWindow window = new MainWindow(fileSystem, disk, buffer);
+                BufferManager buffer = new BufferManager(disk, config.getMaxBufferSlots());
+                fileSystem.attachBuffer(buffer);
+                MainWindow window = new MainWindow(config, fileSystem, volume, buffer);
                 window.setVisible(true);
                 window.refreshAll();
             }
         });
     }
+
+    private static Volume openVolume(SystemConfig config) {
+        int count = config.getDiskCount();
+        if (count == 1) {
+            return new StripedVolume(openDisk(config, config.getDiskFile(), config.getMaxBlocks()));
+        }
+        Disk[] disks = new Disk[count];
+        for (int i = 0; i < count; i++) {
+            String file = config.getDiskFile() == null ? null : config.getDiskFile() + "." + i;
+            disks[i] = openDisk(config, file, config.getBlocksPerDisk());
+        }
+        if (config.isMirrored()) {
+            return new MirroredVolume(disks);
+        }
+        return new StripedVolume(disks, config.getStripeBlocks());
+    }
+
+    private static Disk openDisk(SystemConfig config, String path, int blocks) {
+        if (path == null) {
+            return new Disk(new HeapBlockStore(blocks, config.getBlockSizeBytes()));
+        }
+        try {
+            // La ventana guarda el árbol y fuerza los discos al salir (ver MainWindow)
+            return Disk.openMapped(Paths.get(path), blocks, config.getBlockSizeBytes());
+        } catch (IOException ex) {
+            System.err.println("No se pudo abrir el disco " + path + ": " + ex.getMessage());
+            return new Disk(new HeapBlockStore(blocks, config.getBlockSizeBytes()));
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package proyecto2so.bench;
+
+import proyecto2so.storage.BufferManager;
+import proyecto2so.storage.BufferPolicy;
+
+/**
+ * Mide la latencia de {@link BufferManager#fetchBlock} a medida que crece el número de slots del
+ * buffer (16 a 65536): aciertos puros y, por política, recorridos que fallan en cada acceso. Uso: {@code java -cp build/classes proyecto2so.bench.BufferBenchmark}.
+ */
+public final class BufferBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int FETCHES_PER_ROUND = 2_000_000;
+
+    // Evita que el JIT descarte el trabajo medido
+    private static volatile long blackhole;
+
+    private BufferBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        System.out.println("slots,ns_per_fetch");
+        for (int slots = 16; slots <= 65536; slots *= 4) {
+            System.out.println(slots + "," + String.format("%.2f", measure(slots)));
+        }
+        System.out.println();
+        System.out.println("policy,slots,ns_per_miss");
+        BufferPolicy[] policies = BufferPolicy.values();
+        for (int p = 0; p < policies.length; p++) {
+            for (int slots = 16; slots <= 65536; slots *= 4) {
+                System.out.println(policies[p] + "," + slots + ","
+                        + String.format("%.2f", measureMisses(policies[p], slots)));
+            }
+        }
+    }
+
+    private static double measureMisses(BufferPolicy policy, int slotCount) {
+        BufferManager buffer = new BufferManager(slotCount);
+        buffer.setPolicy(policy);
+        // Un recorrido cíclico sobre el doble de bloques que slots falla siempre
+        int span = slotCount * 2;
+        long sink = 0;
+        int block = 0;
+        for (int i = 0; i < FETCHES_PER_ROUND; i++) {
+            sink += buffer.fetchBlock(block).getHitCount();
+            block = block + 1 == span ? 0 : block + 1;
+        }
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED_ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < FETCHES_PER_ROUND; i++) {
+                sink += buffer.fetchBlock(block).getHitCount();
+                block = block + 1 == span ? 0 : block + 1;
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        blackhole = sink;
+        return best / (double) FETCHES_PER_ROUND;
+    }
+
+    private static double measure(int slotCount) {
+        BufferManager buffer = new BufferManager(slotCount);
+        buffer.setPolicy(BufferPolicy.FIFO);
+        int[] blocks = new int[slotCount];
+        long seed = 42L;
+        for (int i = 0; i < slotCount; i++) {
+            // Índices dispersos para que la tabla hash no vea claves consecutivas
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            blocks[i] = (int) (seed >>> 33);
+            buffer.fetchBlock(blocks[i]);
+        }
+        int[] order = new int[FETCHES_PER_ROUND];
+        for (int i = 0; i < order.length; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            order[i] = blocks[(int) ((seed >>> 33) % slotCount)];
+        }
+        long sink = 0;
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            sink += run(buffer, order);
+        }
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED_ROUNDS; r++) {
+            long start = System.nanoTime();
+            sink += run(buffer, order);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        blackhole = sink;
+        return best / (double) FETCHES_PER_ROUND;
+    }
+
+    private static long run(BufferManager buffer, int[] order) {
+        long sink = 0;
+        for (int i = 0; i < order.length; i++) {
+            sink += buffer.fetchBlock(order[i]).getHitCount();
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,266 @@
+package proyecto2so.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import proyecto2so.io.CompletionListener;
+import proyecto2so.io.RequestHandler;
+import proyecto2so.io.VolumeEngine;
+import proyecto2so.io.VirtualProcessRunner;
+import proyecto2so.process.OperationType;
+import proyecto2so.process.ProcessControlBlock;
+import proyecto2so.process.ProcessQueue;
+import proyecto2so.process.ProcessState;
+import proyecto2so.scheduler.DiskRequest;
+import proyecto2so.scheduler.DiskRequestQueue;
+import proyecto2so.scheduler.IoStats;
+import proyecto2so.scheduler.SchedulerFactory;
+import proyecto2so.storage.MirroredVolume;
+import proyecto2so.storage.ReplicaSelection;
+import proyecto2so.storage.StripedVolume;
+import proyecto2so.storage.Volume;
+
+/**
+ * Mide los planificadores con contención real: varios hilos productores (procesos simulados)
+ * registran su PCB y entregan solicitudes al motor de E/S a la vez mientras uno o más hilos
+ * de disco las atienden. A diferencia de {@link SchedulerBenchmark}, la cola se llena según la
+ * carrera entre productores y disco, no según un reloj simulado. Escribe una fila CSV por
+ * planificador con el rendimiento real, la profundidad media de la cola al atender y las
+ * métricas simuladas. Con {@code --mode=virtual} cada solicitud es un proceso con su propio hilo
+ * virtual ({@link VirtualProcessRunner}) en vez de salir de un bucle productor, de modo que
+ * conviven producers x requests procesos. Con {@code --disks=N} los bloques se reparten en un
+ * {@link StripedVolume} y cada disco tiene su cola, planificador e hilos ({@code --workers} por
+ * disco), así que {@code wall_rps} con {@code --service-us} y {@code sim_rps} muestran cómo escala
+ * el rendimiento con el número de discos. Con {@code --layout=mirrored} los discos forman un
+ * {@link MirroredVolume}; {@code --write-percent} fija la fracción de escrituras, que van a
+ * todas las réplicas, y {@code travel_per_req} muestra cuánto recorre cada solicitud.
+ * {@code merged} cuenta las solicitudes que la cola fusionó con otra ({@code --merging=off}
+ * lo desactiva); con pocos bloques la carga tiene repeticiones y vecinos. Uso:
+ * {@code java -cp build/classes proyecto2so.bench.ConcurrentSubmissionBenchmark
+ * [--mode=platform|virtual] [--layout=striped|mirrored] [--disks=N] [--stripe=N]
+ * [--replica=nearest_head|least_loaded] [--write-percent=N] [--merging=on|off] [--producers=N] [--workers=N]
+ * [--requests=N por productor] [--blocks=N] [--processes=N] [--service-us=N]
+ * [--schedulers=SSTF,LOOK,...]}.
+ */
+public final class ConcurrentSubmissionBenchmark {
+
+    private ConcurrentSubmissionBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean virtual = false;
+        int producers = 8;
+        int workers = 1;
+        int disks = 1;
+        int stripe = 1;
+        boolean mirrored = false;
+        ReplicaSelection replica = ReplicaSelection.NEAREST_HEAD;
+        int writePercent = 0;
+        boolean merging = true;
+        int requests = 50_000;
+        int blocks = 65536;
+        int processes = 1024;
+        int serviceMicros = 0;
+        String schedulers = String.join(",", SchedulerFactory.NAMES);
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "--mode":
+                    if (!"platform".equals(value) && !"virtual".equals(value)) {
+                        throw new IllegalArgumentException("Modo no reconocido: " + value);
+                    }
+                    virtual = "virtual".equals(value);
+                    break;
+                case "--producers":
+                    producers = Integer.parseInt(value);
+                    break;
+                case "--disks":
+                    disks = Integer.parseInt(value);
+                    break;
+                case "--stripe":
+                    stripe = Integer.parseInt(value);
+                    break;
+                case "--layout":
+                    if (!"striped".equals(value) && !"mirrored".equals(value)) {
+                        throw new IllegalArgumentException("Disposicion no reconocida: " + value);
+                    }
+                    mirrored = "mirrored".equals(value);
+                    break;
+                case "--replica":
+                    replica = ReplicaSelection.valueOf(value.toUpperCase());
+                    break;
+                case "--merging":
+                    if (!"on".equals(value) && !"off".equals(value)) {
+                        throw new IllegalArgumentException("Valor no reconocido para --merging: " + value);
+                    }
+                    merging = "on".equals(value);
+                    break;
+                case "--write-percent":
+                    writePercent = Integer.parseInt(value);
+                    break;
+                case "--workers":
+                    workers = Integer.parseInt(value);
+                    break;
+                case "--requests":
+                    requests = Integer.parseInt(value);
+                    break;
+                case "--blocks":
+                    blocks = Integer.parseInt(value);
+                    break;
+                case "--processes":
+                    processes = Integer.parseInt(value);
+                    break;
+                case "--service-us":
+                    serviceMicros = Integer.parseInt(value);
+                    break;
+                case "--schedulers":
+                    schedulers = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Argumento no reconocido: " + arg);
+            }
+        }
+        System.out.println("mode,layout,scheduler,disks,producers,workers,requests,wall_ms,wall_rps,sim_rps,"
+                + "mean_queue_depth,merged,head_travel,travel_per_req,mean_us,p99_us,max_us");
+        String[] names = schedulers.split(",");
+        for (int s = 0; s < names.length; s++) {
+            Volume volume;
+            if (mirrored) {
+                MirroredVolume mirror = MirroredVolume.inMemory(disks, blocks, 64);
+                mirror.setSelection(replica);
+                volume = mirror;
+            } else {
+                volume = StripedVolume.inMemory(disks, (blocks + disks - 1) / disks, 64, stripe);
+            }
+            run(names[s].trim(), volume, virtual, merging, producers, workers, requests, writePercent, processes,
+                    serviceMicros);
+        }
+    }
+
+    private static void run(String schedulerName, Volume volume, boolean virtual, boolean merging, int producers,
+            int workers,
+            final int requests, final int writePercent, int processes, final int serviceMicros)
+            throws InterruptedException {
+        int disks = volume.getDiskCount();
+        final int logicalBlocks = volume.getLogicalDisk().capacity();
+        final ProcessQueue processQueue = new ProcessQueue(processes);
+        // Cada disco con su propio candado: el manejador no toca estado compartido
+        final VolumeEngine engine = new VolumeEngine(volume, processes, schedulerName, new RequestHandler() {
+            @Override
+            public boolean execute(DiskRequest request) {
+                if (serviceMicros > 0) {
+                    long until = System.nanoTime() + serviceMicros * 1000L;
+                    while (System.nanoTime() < until) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return true;
+            }
+        }, null);
+        for (int d = 0; d < disks; d++) {
+            engine.getEngine(d).getQueue().setMerging(merging);
+        }
+        final long total = (long) producers * requests;
+        final AtomicLong depthSum = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(1);
+        for (int d = 0; d < disks; d++) {
+            final DiskRequestQueue queue = engine.getEngine(d).getQueue();
+            engine.getEngine(d).addListener(new CompletionListener() {
+                @Override
+                public void requestCompleted(DiskRequest request, boolean success) {
+                    // Se invoca con el candado del disco que terminó la última parte de la solicitud
+                    depthSum.addAndGet(queue.size());
+                    processQueue.removeByPid(request.getPcb().getPid());
+                    if (completed.incrementAndGet() == total) {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        engine.start(workers);
+        if (virtual) {
+            long spawnStart = System.nanoTime();
+            runVirtual(engine, processQueue, processes, (int) total, logicalBlocks, writePercent);
+            done.await();
+            long wallNanos = System.nanoTime() - spawnStart;
+            engine.shutdown();
+            report(engine, "virtual", producers, workers, total, wallNanos, depthSum.get());
+            return;
+        }
+        Thread[] threads = new Thread[producers];
+        final CountDownLatch go = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    SplittableRandom random = new SplittableRandom(42L + producer);
+                    try {
+                        go.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    for (int i = 0; i < requests; i++) {
+                        int pid = producer * requests + i;
+                        ProcessControlBlock pcb = new ProcessControlBlock(pid, operation(random, writePercent),
+                                "/bench", "bench");
+                        pcb.setState(ProcessState.READY);
+                        // El límite de procesos hace de contrapresión, como process.max en el simulador
+                        while (!processQueue.enqueue(pcb)) {
+                            Thread.yield();
+                        }
+                        DiskRequest request = new DiskRequest(pcb, random.nextInt(logicalBlocks));
+                        while (!engine.offer(request)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            }, "producer-" + p);
+            threads[p].start();
+        }
+        long start = System.nanoTime();
+        go.countDown();
+        for (int p = 0; p < producers; p++) {
+            threads[p].join();
+        }
+        done.await();
+        long wallNanos = System.nanoTime() - start;
+        engine.shutdown();
+        report(engine, "platform", producers, workers, total, wallNanos, depthSum.get());
+    }
+
+    private static OperationType operation(SplittableRandom random, int writePercent) {
+        return random.nextInt(100) < writePercent ? OperationType.UPDATE : OperationType.READ;
+    }
+
+    private static void runVirtual(VolumeEngine engine, ProcessQueue processQueue, int processes, int total,
+            int blocks, int writePercent) {
+        VirtualProcessRunner runner = new VirtualProcessRunner(engine, processQueue, processes);
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int pid = 0; pid < total; pid++) {
+            ProcessControlBlock pcb = new ProcessControlBlock(pid, operation(random, writePercent), "/bench", "bench");
+            runner.spawn(pcb, random.nextInt(blocks));
+        }
+    }
+
+    private static void report(VolumeEngine engine, String mode, int producers, int workers, long total,
+            long wallNanos, long depthSum) {
+        IoStats stats = engine.getStats();
+        long merged = 0;
+        for (int d = 0; d < engine.getDiskCount(); d++) {
+            merged += engine.getEngine(d).getQueue().getMergeCount();
+        }
+        String layout = engine.getVolume().isMirrored() ? "mirrored" : "striped";
+        System.out.println(mode + "," + layout + "," + engine.getSchedulerName() + "," + engine.getDiskCount() + "," + producers
+                + "," + workers + "," + stats.getCount() + "," + wallNanos / 1_000_000
+                + "," + String.format("%.0f", total * 1e9 / wallNanos) + "," + String.format("%.2f", stats.getThroughput())
+                + "," + String.format("%.1f", depthSum / (double) total) + "," + merged + "," + stats.getTotalTravel()
+                + "," + String.format("%.1f", stats.getTotalTravel() / (double) Math.max(1, stats.getCount()))
+                + "," + String.format("%.1f", stats.getMeanLatency()) + "," + stats.getPercentile(99)
+                + "," + stats.getPercentile(100));
+    }
+}
@@ -0,0 +1,236 @@
+package proyecto2so.bench;
+
+import java.util.SplittableRandom;
+import proyecto2so.scheduler.DiskRequest;
+import proyecto2so.scheduler.DiskRequestQueue;
+import proyecto2so.scheduler.DiskScheduler;
+import proyecto2so.scheduler.DiskTimingModel;
+import proyecto2so.scheduler.HddTimingModel;
+import proyecto2so.scheduler.IoStats;
+import proyecto2so.scheduler.RequestDispatcher;
+import proyecto2so.scheduler.SchedulerFactory;
+import proyecto2so.scheduler.SsdTimingModel;
+
+/**
+ * Compara los planificadores de disco sin interfaz: genera cargas sintéticas (uniforme, Zipf,
+ * secuencial y en ráfagas) con llegadas de Poisson, las atiende hasta vaciar la cola con cada
+ * planificador y escribe una fila CSV por combinación con recorrido, rendimiento y percentiles
+ * de latencia. Con {@code --request-blocks=N} cada solicitud lee N bloques repartidos en
+ * {@code --extents=K} tramos dispersos, como un archivo fragmentado, y se atiende tramo a tramo.
+ * Uso: {@code java -cp build/classes proyecto2so.bench.SchedulerBenchmark
+ * [--requests=N] [--blocks=N] [--rate=E/S por segundo] [--model=hdd|ssd] [--seed=N]
+ * [--request-blocks=N] [--extents=K] [--workloads=uniform,zipf,...] [--schedulers=SSTF,LOOK,...]}.
+ */
+public final class SchedulerBenchmark {
+
+    private static final double ZIPF_SKEW = 0.99;
+    private static final int SEQUENTIAL_RUN = 64;
+    private static final int BURST_LENGTH = 200;
+    private static final int BURST_FACTOR = 10;
+
+    private enum Workload {
+        UNIFORM, ZIPF, SEQUENTIAL, BURSTY
+    }
+
+    private SchedulerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int requests = 1_000_000;
+        int blocks = 65536;
+        double rate = 120;
+        String model = "hdd";
+        long seed = 42L;
+        int requestBlocks = 1;
+        int extents = 1;
+        String workloads = "uniform,zipf,sequential,bursty";
+        String schedulers = String.join(",", SchedulerFactory.NAMES);
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "--requests":
+                    requests = Integer.parseInt(value);
+                    break;
+                case "--blocks":
+                    blocks = Integer.parseInt(value);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--model":
+                    model = value;
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--request-blocks":
+                    requestBlocks = Integer.parseInt(value);
+                    break;
+                case "--extents":
+                    extents = Integer.parseInt(value);
+                    break;
+                case "--workloads":
+                    workloads = value;
+                    break;
+                case "--schedulers":
+                    schedulers = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Argumento no reconocido: " + arg);
+            }
+        }
+        if (requestBlocks <= 0 || extents <= 0 || extents > requestBlocks || requestBlocks > blocks) {
+            throw new IllegalArgumentException("Se necesita 0 < extents <= request-blocks <= blocks");
+        }
+        System.out.println("workload,scheduler,requests,head_travel,throughput_rps,mean_us,p50_us,p95_us,p99_us,"
+                + "max_us,wall_ms");
+        String[] workloadNames = workloads.split(",");
+        String[] schedulerNames = schedulers.split(",");
+        int[] targets = new int[requests];
+        long[] arrivals = new long[requests];
+        for (int w = 0; w < workloadNames.length; w++) {
+            Workload workload = Workload.valueOf(workloadNames[w].trim().toUpperCase());
+            generate(workload, new SplittableRandom(seed), blocks, rate, targets, arrivals);
+            for (int s = 0; s < schedulerNames.length; s++) {
+                DiskScheduler scheduler = SchedulerFactory.create(schedulerNames[s].trim(), blocks);
+                DiskTimingModel timing = "ssd".equalsIgnoreCase(model)
+                        ? new SsdTimingModel() : new HddTimingModel(blocks);
+                long start = System.nanoTime();
+                IoStats stats = run(scheduler, timing, targets, arrivals, blocks, requestBlocks, extents);
+                long wallMillis = (System.nanoTime() - start) / 1_000_000;
+                System.out.println(workload.name().toLowerCase() + "," + scheduler.getName() + "," + stats.getCount()
+                        + "," + stats.getTotalTravel() + "," + String.format("%.2f", stats.getThroughput())
+                        + "," + String.format("%.1f", stats.getMeanLatency()) + "," + stats.getPercentile(50)
+                        + "," + stats.getPercentile(95) + "," + stats.getPercentile(99)
+                        + "," + stats.getPercentile(100) + "," + wallMillis);
+            }
+        }
+    }
+
+    /**
+     * Atiende la carga como un sistema abierto: las solicitudes entran a la cola cuando el reloj
+     * simulado alcanza su llegada y, si la cola se vacía, el reloj salta a la siguiente llegada.
+     */
+    private static IoStats run(DiskScheduler scheduler, DiskTimingModel timing, int[] targets, long[] arrivals,
+            int blocks, int requestBlocks, int extents) {
+        RequestDispatcher dispatcher = new RequestDispatcher(scheduler, timing);
+        DiskRequestQueue queue = new DiskRequestQueue(targets.length);
+        queue.setBatching(scheduler.isBatched());
+        queue.setArrivalOrdered(scheduler.isArrivalOrdered());
+        int next = 0;
+        int served = 0;
+        int head = 0;
+        while (served < targets.length) {
+            while (next < targets.length && arrivals[next] <= dispatcher.getNow()) {
+                dispatcher.submit(queue, newRequest(targets[next], next, blocks, requestBlocks, extents),
+                        arrivals[next]);
+                next++;
+            }
+            if (queue.size() == 0) {
+                dispatcher.advanceTo(arrivals[next]);
+                continue;
+            }
+            DiskRequest request = dispatcher.dispatchNext(head, queue);
+            head = request.getServedBlock();
+            if (request.isFinished()) {
+                served++;
+            }
+        }
+        return dispatcher.getStats();
+    }
+
+    /**
+     * Solicitud que empieza en {@code target}; con varios tramos, los siguientes caen en
+     * posiciones que dependen solo del número de solicitud, así todos los planificadores ven la
+     * misma disposición.
+     */
+    private static DiskRequest newRequest(int target, int index, int blocks, int requestBlocks, int extents) {
+        if (extents == 1) {
+            return new DiskRequest(null, Math.min(target, blocks - requestBlocks), requestBlocks);
+        }
+        int[] chain = new int[requestBlocks];
+        int filled = 0;
+        for (int e = 0; e < extents; e++) {
+            int length = requestBlocks / extents + (e < requestBlocks % extents ? 1 : 0);
+            long start = e == 0 ? target : target + ((index * 31L + e) * 2654435761L) % blocks;
+            for (int b = 0; b < length; b++) {
+                chain[filled++] = (int) ((start + b) % blocks);
+            }
+        }
+        return new DiskRequest(null, chain);
+    }
+
+    private static void generate(Workload workload, SplittableRandom random, int blocks, double rate, int[] targets,
+            long[] arrivals) {
+        ZipfGenerator zipf = workload == Workload.ZIPF ? new ZipfGenerator(blocks, ZIPF_SKEW) : null;
+        double meanGap = 1_000_000.0 / rate;
+        double time = 0;
+        int cursor = 0;
+        for (int i = 0; i < targets.length; i++) {
+            switch (workload) {
+                case ZIPF:
+                    // Se dispersan los rangos para que los bloques calientes no queden juntos al inicio
+                    targets[i] = (int) ((zipf.next(random) * 2654435761L) % blocks);
+                    break;
+                case SEQUENTIAL:
+                    if (i % SEQUENTIAL_RUN == 0) {
+                        cursor = random.nextInt(blocks);
+                    }
+                    targets[i] = cursor;
+                    cursor = cursor + 1 == blocks ? 0 : cursor + 1;
+                    break;
+                default:
+                    targets[i] = random.nextInt(blocks);
+                    break;
+            }
+            double gap = meanGap;
+            if (workload == Workload.BURSTY) {
+                // Ráfagas a BURST_FACTOR veces la tasa seguidas de una pausa que mantiene la tasa media
+                gap = (i / BURST_LENGTH) % 2 == 0 ? meanGap / BURST_FACTOR : meanGap * (2 - 1.0 / BURST_FACTOR);
+            }
+            time += -Math.log(1 - random.nextDouble()) * gap;
+            arrivals[i] = (long) time;
+        }
+    }
+
+    /**
+     * Rangos con distribución de Zipf en [0, n) por el método de Gray et al. (usado en YCSB):
+     * una sola pasada inicial para la constante zeta y luego O(1) por muestra.
+     */
+    private static final class ZipfGenerator {
+
+        private final int n;
+        private final double theta;
+        private final double alpha;
+        private final double zetaN;
+        private final double eta;
+
+        ZipfGenerator(int n, double theta) {
+            this.n = n;
+            this.theta = theta;
+            double zeta2 = 1 + Math.pow(0.5, theta);
+            double sum = 0;
+            for (int i = 1; i <= n; i++) {
+                sum += 1 / Math.pow(i, theta);
+            }
+            this.zetaN = sum;
+            this.alpha = 1 / (1 - theta);
+            this.eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetaN);
+        }
+
+        long next(SplittableRandom random) {
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            if (uz < 1) {
+                return 0;
+            }
+            if (uz < 1 + Math.pow(0.5, theta)) {
+                return 1;
+            }
+            return Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1, alpha)));
+        }
+    }
+}
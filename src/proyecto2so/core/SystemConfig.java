@@ -1,18 +1,184 @@
 package proyecto2so.core;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
 /**
- * Parametriza el simulador (tamaños máximos, usuarios especiales, etc.).
+ * Parametriza el simulador (geometría del disco, tamaño del buffer, límite de procesos, etc.).
+ * Los valores se fijan al arrancar desde un archivo de propiedades o la línea de comandos, de
+ * modo que se pueden probar discos de distinto tamaño sin recompilar. Claves reconocidas:
+ * {@code disk.blocks}, {@code disk.blockSize}, {@code disk.file}, {@code disk.count},
+ * {@code disk.stripeBlocks}, {@code buffer.slots} y {@code process.max}. Con {@code disk.count}
+ * mayor que 1 los {@code disk.blocks} bloques se reparten en un volumen RAID-0 de ese número de
+ * discos con franjas de {@code disk.stripeBlocks} bloques, o en un espejo RAID-1 si
+ * {@code disk.layout=mirrored}, donde cada disco guarda los {@code disk.blocks} bloques.
+ * Con {@code disk.file} los bloques viven en un archivo mapeado y el árbol de directorios en
+ * {@code disk.file.tree}, que se escribe al salir y se reconstruye al arrancar.
  */
 public final class SystemConfig {
 
-    private SystemConfig() {
-        // Utility class
+    public static final int DEFAULT_MAX_BLOCKS = 240; // Disk blocks available
+    public static final int DEFAULT_BLOCK_SIZE_BYTES = 4096; // Simulated block size
+    public static final int DEFAULT_MAX_BUFFER_SLOTS = 16; // Buffer entries when enabled
+    public static final int DEFAULT_MAX_PROCESSES = 64; // Limit for PCB pool
+    public static final int DEFAULT_DISK_COUNT = 1; // Disks in the striped volume
+    public static final int DEFAULT_STRIPE_BLOCKS = 1; // Consecutive blocks per disk in a stripe
+    public static final String LAYOUT_STRIPED = "striped";
+    public static final String LAYOUT_MIRRORED = "mirrored";
+
+    public static final String ROOT_USER = "admin";
+
+    private final int maxBlocks;
+    private final int blockSizeBytes;
+    private final int maxBufferSlots;
+    private final int maxProcesses;
+    private final String diskFile;
+    private final int diskCount;
+    private final int stripeBlocks;
+    private final boolean mirrored;
+
+    /**
+     * @param diskFile archivo del disco mapeado en memoria, o null para un disco en el heap
+     */
+    public SystemConfig(int maxBlocks, int blockSizeBytes, int maxBufferSlots, int maxProcesses, String diskFile) {
+        this(maxBlocks, blockSizeBytes, maxBufferSlots, maxProcesses, diskFile, DEFAULT_DISK_COUNT,
+                DEFAULT_STRIPE_BLOCKS, false);
     }
 
-    public static final int MAX_BLOCKS = 240; // Disk blocks available
-    public static final int BLOCK_SIZE_BYTES = 4096; // Simulated block size
-    public static final int MAX_BUFFER_SLOTS = 16; // Buffer entries when enabled
-    public static final int MAX_PROCESSES = 64; // Limit for PCB pool
+    /**
+     * @param diskFile archivo del disco mapeado en memoria, o null para discos en el heap; con
+     *                 varios discos cada uno usa {@code diskFile.N}
+     * @param mirrored true para un espejo RAID-1 en vez de un volumen RAID-0
+     */
+    public SystemConfig(int maxBlocks, int blockSizeBytes, int maxBufferSlots, int maxProcesses, String diskFile,
+            int diskCount, int stripeBlocks, boolean mirrored) {
+        this.maxBlocks = requirePositive("disk.blocks", maxBlocks);
+        this.blockSizeBytes = requirePositive("disk.blockSize", blockSizeBytes);
+        this.maxBufferSlots = requirePositive("buffer.slots", maxBufferSlots);
+        this.maxProcesses = requirePositive("process.max", maxProcesses);
+        this.diskFile = diskFile == null || diskFile.trim().isEmpty() ? null : diskFile.trim();
+        this.diskCount = requirePositive("disk.count", diskCount);
+        this.stripeBlocks = requirePositive("disk.stripeBlocks", stripeBlocks);
+        this.mirrored = mirrored;
+    }
 
-    public static final String ROOT_USER = "admin";
+    public static SystemConfig defaults() {
+        return new SystemConfig(DEFAULT_MAX_BLOCKS, DEFAULT_BLOCK_SIZE_BYTES, DEFAULT_MAX_BUFFER_SLOTS,
+                DEFAULT_MAX_PROCESSES, null);
+    }
+
+    /**
+     * Lee la configuración de un juego de propiedades; las claves ausentes toman el valor por defecto.
+     */
+    public static SystemConfig fromProperties(Properties props) {
+        return new SystemConfig(
+                intProperty(props, "disk.blocks", DEFAULT_MAX_BLOCKS),
+                intProperty(props, "disk.blockSize", DEFAULT_BLOCK_SIZE_BYTES),
+                intProperty(props, "buffer.slots", DEFAULT_MAX_BUFFER_SLOTS),
+                intProperty(props, "process.max", DEFAULT_MAX_PROCESSES),
+                props.getProperty("disk.file"),
+                intProperty(props, "disk.count", DEFAULT_DISK_COUNT),
+                intProperty(props, "disk.stripeBlocks", DEFAULT_STRIPE_BLOCKS),
+                LAYOUT_MIRRORED.equals(layoutProperty(props)));
+    }
+
+    /**
+     * Interpreta argumentos {@code --clave=valor}. {@code --config=ruta} carga primero un archivo de
+     * propiedades y el resto de argumentos lo sobrescriben.
+     */
+    public static SystemConfig fromArgs(String[] args) throws IOException {
+        Properties props = new Properties();
+        Properties overrides = new Properties();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Argumento no reconocido: " + arg);
+            }
+            String key = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            if ("config".equals(key)) {
+                try (InputStream in = Files.newInputStream(Paths.get(value))) {
+                    props.load(in);
+                }
+            } else {
+                overrides.setProperty(key, value);
+            }
+        }
+        props.putAll(overrides);
+        return fromProperties(props);
+    }
+
+    private static int intProperty(Properties props, String key, int fallback) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Valor invalido para " + key + ": " + value);
+        }
+    }
+
+    private static String layoutProperty(Properties props) {
+        String value = props.getProperty("disk.layout", LAYOUT_STRIPED).trim().toLowerCase();
+        if (!LAYOUT_STRIPED.equals(value) && !LAYOUT_MIRRORED.equals(value)) {
+            throw new IllegalArgumentException("Valor invalido para disk.layout: " + value);
+        }
+        return value;
+    }
+
+    private static int requirePositive(String key, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(key + " debe ser positivo: " + value);
+        }
+        return value;
+    }
+
+    public int getMaxBlocks() {
+        return maxBlocks;
+    }
+
+    public int getBlockSizeBytes() {
+        return blockSizeBytes;
+    }
+
+    public int getMaxBufferSlots() {
+        return maxBufferSlots;
+    }
+
+    public int getMaxProcesses() {
+        return maxProcesses;
+    }
+
+    public String getDiskFile() {
+        return diskFile;
+    }
+
+    public int getDiskCount() {
+        return diskCount;
+    }
+
+    public int getStripeBlocks() {
+        return stripeBlocks;
+    }
+
+    public boolean isMirrored() {
+        return mirrored;
+    }
+
+    /**
+     * Bloques de cada disco del volumen. En un espejo cada disco los guarda todos; en franjas se
+     * redondea hacia arriba para no perder capacidad.
+     */
+    public int getBlocksPerDisk() {
+        if (mirrored) {
+            return maxBlocks;
+        }
+        return (maxBlocks + diskCount - 1) / diskCount;
+    }
 }
@@ -1,5 +1,7 @@
 package proyecto2so.filesystem;
 
+import proyecto2so.storage.BlockChain;
+
 /**
  * Guarda los metadatos de un archivo dentro del sistema simulado.
  */
@@ -8,6 +10,7 @@ public class FileEntry extends FileSystemNode {
     private final String owner;
     private int blockCount;
     private int firstBlockIndex = -1;
+    private BlockChain chain = new BlockChain();
     private String colorHex = "#CCCCCC";
     private int createdByPid = -1;
     private boolean publicReadable = true;
@@ -42,6 +45,16 @@ public class FileEntry extends FileSystemNode {
         this.firstBlockIndex = firstBlockIndex;
     }
 
+    public BlockChain getChain() {
+        return chain;
+    }
+
+    public void setChain(BlockChain chain) {
+        this.chain = chain == null ? new BlockChain() : chain;
+        this.firstBlockIndex = this.chain.getHeadIndex();
+        this.blockCount = this.chain.getLength();
+    }
+
     public String getColorHex() {
         return colorHex;
     }
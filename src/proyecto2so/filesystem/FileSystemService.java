@@ -1,8 +1,12 @@
 package proyecto2so.filesystem;
 
-import proyecto2so.core.SystemConfig;
+import java.nio.charset.StandardCharsets;
 import proyecto2so.storage.BlockAllocator;
+import proyecto2so.storage.BlockChain;
+import proyecto2so.storage.BufferManager;
+import proyecto2so.storage.Disk;
 import proyecto2so.storage.DiskBlock;
+import proyecto2so.storage.ExtentList;
 
 /**
  * Provee las operaciones CRUD del sistema de archivos y conversa con el disco.
@@ -11,6 +15,7 @@ public class FileSystemService {
 
     private final DirectoryNode root;
     private final BlockAllocator allocator;
+    private BufferManager buffer;
     private int idSequence = 1;
 
     public FileSystemService(BlockAllocator allocator) {
@@ -22,6 +27,17 @@ public class FileSystemService {
         return "node-" + (idSequence++);
     }
 
+    public BlockAllocator getAllocator() {
+        return allocator;
+    }
+
+    /**
+     * Hace que lecturas y escrituras de contenido pasen por el buffer (necesario en write-back).
+     */
+    public void attachBuffer(BufferManager buffer) {
+        this.buffer = buffer;
+    }
+
     public DirectoryNode getRoot() {
         return root;
     }
@@ -36,6 +52,14 @@ public class FileSystemService {
         root.setFirstChild(null);
     }
 
+    /**
+     * Vacía el árbol sin liberar bloques: la carga de un snapshot incremental reemplaza los
+     * metadatos pero aplica los bloques sobre el disco actual.
+     */
+    public void clearTree() {
+        root.setFirstChild(null);
+    }
+
     public FileSystemNode findNode(String path) {
         if (path == null || path.isEmpty() || "/".equals(path)) {
             return root;
@@ -99,16 +123,15 @@ public class FileSystemService {
             return null;
         }
         FileEntry file = new FileEntry(nextId(), fileName, owner);
-        int headIndex = allocator.allocateChain(file.getId(), blocksNeeded);
-        if (headIndex == -1) {
+        BlockChain chain = new BlockChain();
+        if (!allocator.extendChain(chain, file.getId(), blocksNeeded)) {
             return null;
         }
-        file.setBlockCount(blocksNeeded);
-        file.setFirstBlockIndex(headIndex);
+        file.setChain(chain);
         file.setPublicReadable(publicReadable);
         file.setCreatedByPid(createdByPid);
         file.setColorHex(colorFromId(file.getId()));
-        writeContentToBlocks(file, content != null ? content : defaultContent(fileName));
+        writeContentToBlocks(file, encode(content != null ? content : defaultContent(fileName)));
         parent.addChild(file);
         return file;
     }
@@ -118,9 +141,9 @@ public class FileSystemService {
         if (file == null) {
             return false;
         }
-        String content = newContent == null ? "" : newContent;
-        int requiredBlocks = Math.max(1,
-                (int) Math.ceil((double) Math.max(1, content.length()) / SystemConfig.BLOCK_SIZE_BYTES));
+        byte[] content = encode(newContent);
+        int blockSize = allocator.getDisk().getBlockSize();
+        int requiredBlocks = Math.max(1, (content.length + blockSize - 1) / blockSize);
         if (!ensureBlockCount(file, requiredBlocks)) {
             return false;
         }
@@ -187,7 +210,71 @@ public class FileSystemService {
             }
         } else {
             FileEntry file = (FileEntry) node;
-            allocator.releaseChain(file.getFirstBlockIndex());
+            if (file.getChain().isEmpty()) {
+                allocator.releaseChain(file.getFirstBlockIndex());
+            } else {
+                allocator.releaseChain(file.getChain());
+            }
+        }
+    }
+
+    /**
+     * Libera los bloques ocupados que no pertenecen a ningún archivo del árbol. Se usa al abrir
+     * un disco en archivo después de reconstruir su árbol guardado, para recuperar los bloques
+     * que quedaron sin dueño si la ejecución anterior terminó sin guardarlo.
+     *
+     * @return bloques liberados
+     */
+    public int releaseUnreferencedBlocks() {
+        Disk disk = allocator.getDisk();
+        long[] referenced = new long[(disk.capacity() + 63) >>> 6];
+        markReferenced(root, referenced);
+        int released = 0;
+        for (int i = 0; i < disk.capacity(); i++) {
+            if (!disk.isFree(i) && (referenced[i >>> 6] & (1L << i)) == 0) {
+                disk.getBlock(i).release();
+                released++;
+            }
+        }
+        return released;
+    }
+
+    private void markReferenced(FileSystemNode node, long[] referenced) {
+        if (!node.isDirectory()) {
+            ExtentList extents = allocator.chainOf(((FileEntry) node).getFirstBlockIndex()).getExtents();
+            for (int e = 0; e < extents.size(); e++) {
+                int end = extents.getStart(e) + extents.getLength(e);
+                for (int i = extents.getStart(e); i < end; i++) {
+                    referenced[i >>> 6] |= 1L << i;
+                }
+            }
+            return;
+        }
+        FileSystemNode child = node.getFirstChild();
+        while (child != null) {
+            markReferenced(child, referenced);
+            child = child.getNextSibling();
+        }
+    }
+
+    /**
+     * Recalcula la cadena y los tramos de todos los archivos a partir de los enlaces en disco. Se usa tras
+     * cargar un snapshot, donde los metadatos llegan antes que el contenido de los bloques.
+     */
+    public void rebuildChains() {
+        rebuildChains(root);
+    }
+
+    private void rebuildChains(FileSystemNode node) {
+        if (!node.isDirectory()) {
+            FileEntry file = (FileEntry) node;
+            file.setChain(allocator.chainOf(file.getFirstBlockIndex()));
+            return;
+        }
+        FileSystemNode child = node.getFirstChild();
+        while (child != null) {
+            rebuildChains(child);
+            child = child.getNextSibling();
         }
     }
 
@@ -210,18 +297,51 @@ public class FileSystemService {
         if (file == null) {
             return "";
         }
-        StringBuilder builder = new StringBuilder();
-        int cursor = file.getFirstBlockIndex();
-        while (cursor != -1) {
-            DiskBlock block = allocator.getDisk().getBlock(cursor);
-            if (block == null || block.isFree()) {
-                break;
+        // Se juntan los bytes de todos los bloques y se decodifica una sola vez, así un carácter
+        // multibyte partido entre dos bloques se reconstruye bien
+        ExtentList extents = file.getChain().getExtents();
+        int total = 0;
+        for (int e = 0; e < extents.size(); e++) {
+            int start = extents.getStart(e);
+            int end = start + extents.getLength(e);
+            for (int i = start; i < end; i++) {
+                total += buffer != null ? buffer.peekLength(i) : blockLength(i);
             }
-            builder.append(block.getData());
-            builder.append('\n');
-            cursor = block.getNextIndex();
         }
-        return builder.toString().trim();
+        byte[] content = new byte[total];
+        int offset = 0;
+        for (int e = 0; e < extents.size(); e++) {
+            int start = extents.getStart(e);
+            int end = start + extents.getLength(e);
+            for (int i = start; i < end; i++) {
+                DiskBlock block = allocator.getDisk().getBlock(i);
+                if (block == null || block.isFree()) {
+                    return new String(content, 0, offset, StandardCharsets.UTF_8);
+                }
+                offset += buffer != null ? buffer.peek(i, content, offset) : block.read(content, offset);
+            }
+        }
+        return new String(content, 0, offset, StandardCharsets.UTF_8);
+    }
+
+    private int blockLength(int blockIndex) {
+        DiskBlock block = allocator.getDisk().getBlock(blockIndex);
+        return block == null ? 0 : block.getLength();
+    }
+
+    /**
+     * Devuelve el índice en disco del bloque que contiene el byte {@code offset} del archivo,
+     * o -1 si el desplazamiento cae fuera del archivo.
+     */
+    public int blockForOffset(FileEntry file, long offset) {
+        if (file == null || offset < 0) {
+            return -1;
+        }
+        long logical = offset / allocator.getDisk().getBlockSize();
+        if (logical >= file.getChain().getLength()) {
+            return -1;
+        }
+        return file.getChain().blockAt((int) logical);
     }
 
     public boolean renameNode(String path, String newName) {
@@ -239,94 +359,52 @@ public class FileSystemService {
         return true;
     }
 
-    private void writeContentToBlocks(FileEntry file, String content) {
-        if (file == null || file.getFirstBlockIndex() == -1) {
+    private void writeContentToBlocks(FileEntry file, byte[] content) {
+        if (file == null || file.getChain().isEmpty()) {
             return;
         }
-        String safeContent = content == null ? "" : content;
-        int chunkSize = Math.max(1, SystemConfig.BLOCK_SIZE_BYTES);
-        int cursor = file.getFirstBlockIndex();
+        int chunkSize = allocator.getDisk().getBlockSize();
+        ExtentList extents = file.getChain().getExtents();
         int offset = 0;
-        while (cursor != -1) {
-            DiskBlock block = allocator.getDisk().getBlock(cursor);
-            if (block == null) {
-                break;
+        for (int e = 0; e < extents.size(); e++) {
+            int start = extents.getStart(e);
+            int end = start + extents.getLength(e);
+            for (int i = start; i < end; i++) {
+                DiskBlock block = allocator.getDisk().getBlock(i);
+                if (block == null) {
+                    return;
+                }
+                int count = Math.max(0, Math.min(chunkSize, content.length - offset));
+                int from = Math.min(offset, content.length);
+                if (buffer != null) {
+                    buffer.writeBlock(i, content, from, count);
+                } else {
+                    block.write(content, from, count);
+                }
+                offset += chunkSize;
             }
-            String segment;
-            if (offset >= safeContent.length()) {
-                segment = "";
-            } else {
-                int end = Math.min(safeContent.length(), offset + chunkSize);
-                segment = safeContent.substring(offset, end);
-            }
-            block.setData(segment);
-            offset += chunkSize;
-            cursor = block.getNextIndex();
         }
     }
 
+    private byte[] encode(String text) {
+        return text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+    }
+
     private boolean ensureBlockCount(FileEntry file, int newBlockCount) {
-        if (file.getFirstBlockIndex() == -1) {
-            int head = allocator.allocateChain(file.getId(), newBlockCount);
-            if (head == -1) {
-                return false;
-            }
-            file.setFirstBlockIndex(head);
-            file.setBlockCount(newBlockCount);
-            return true;
-        }
-        int current = Math.max(1, file.getBlockCount());
+        BlockChain chain = file.getChain();
+        int current = chain.getLength();
         if (newBlockCount == current) {
             return true;
         }
         if (newBlockCount < current) {
-            truncateChain(file, newBlockCount);
-            file.setBlockCount(newBlockCount);
-            return true;
-        }
-        int extraNeeded = newBlockCount - current;
-        int extensionHead = allocator.allocateChain(file.getId(), extraNeeded);
-        if (extensionHead == -1) {
+            allocator.truncateChain(chain, newBlockCount);
+        } else if (!allocator.extendChain(chain, file.getId(), newBlockCount - current)) {
             return false;
         }
-        appendChain(file, extensionHead);
-        file.setBlockCount(newBlockCount);
+        file.setChain(chain);
         return true;
     }
 
-    private void truncateChain(FileEntry file, int keepBlocks) {
-        int cursor = file.getFirstBlockIndex();
-        int remaining = keepBlocks;
-        DiskBlock lastKept = null;
-        while (cursor != -1 && remaining > 0) {
-            lastKept = allocator.getDisk().getBlock(cursor);
-            cursor = lastKept != null ? lastKept.getNextIndex() : -1;
-            remaining--;
-        }
-        if (lastKept == null) {
-            return;
-        }
-        int tailHead = lastKept.getNextIndex();
-        lastKept.setNextIndex(-1);
-        allocator.releaseChain(tailHead);
-    }
-
-    private void appendChain(FileEntry file, int newChainHead) {
-        if (file.getFirstBlockIndex() == -1) {
-            file.setFirstBlockIndex(newChainHead);
-            return;
-        }
-        int cursor = file.getFirstBlockIndex();
-        DiskBlock last = null;
-        while (cursor != -1) {
-            last = allocator.getDisk().getBlock(cursor);
-            cursor = (last != null) ? last.getNextIndex() : -1;
-        }
-        if (last != null) {
-            last.setNextIndex(newChainHead);
-        }
-    }
-
     private String defaultContent(String fileName) {
         return "Contenido de " + fileName;
     }
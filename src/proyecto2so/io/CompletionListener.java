@@ -0,0 +1,13 @@
+package proyecto2so.io;
+
+import proyecto2so.scheduler.DiskRequest;
+
+/**
+ * Recibe los eventos de finalización del motor de E/S. Se invoca desde el hilo del disco con el
+ * candado del motor tomado, así que debe volver rápido; la interfaz gráfica solo debe encolar
+ * su actualización con {@code SwingUtilities.invokeLater}.
+ */
+public interface CompletionListener {
+
+    void requestCompleted(DiskRequest request, boolean success);
+}
@@ -0,0 +1,137 @@
+package proyecto2so.io;
+
+import proyecto2so.filesystem.FileEntry;
+import proyecto2so.filesystem.FileSystemService;
+import proyecto2so.process.ProcessControlBlock;
+import proyecto2so.scheduler.DiskRequest;
+import proyecto2so.storage.BlockChain;
+import proyecto2so.storage.BufferManager;
+import proyecto2so.storage.Disk;
+import proyecto2so.storage.DiskBlock;
+
+/**
+ * Ejecuta sobre el sistema de archivos la operación del PCB de cada solicitud y deja un resumen
+ * en {@link ProcessControlBlock#getResult()} para la bitácora.
+ */
+public class FileOperationHandler implements RequestHandler {
+
+    // Cuánto del contenido leído se copia al resumen
+    private static final int RESULT_PREVIEW_CHARS = 120;
+
+    private final FileSystemService fileSystem;
+    private final Disk disk;
+    private final BufferManager buffer;
+
+    public FileOperationHandler(FileSystemService fileSystem, Disk disk, BufferManager buffer) {
+        this.fileSystem = fileSystem;
+        this.disk = disk;
+        this.buffer = buffer;
+    }
+
+    @Override
+    public boolean execute(DiskRequest request) {
+        ProcessControlBlock pcb = request.getPcb();
+        if (pcb == null) {
+            return true;
+        }
+        switch (pcb.getOperation()) {
+            case CREATE:
+                return performCreate(pcb);
+            case MKDIR:
+                return performMkdir(pcb);
+            case DELETE:
+                return fileSystem.deleteNode(pcb.getTargetPath());
+            case READ:
+                return performRead(pcb);
+            case UPDATE:
+                return performRename(pcb);
+            default:
+                return true;
+        }
+    }
+
+    private boolean performCreate(ProcessControlBlock pcb) {
+        String fullPath = pcb.getTargetPath();
+        String parent = parentOf(fullPath);
+        String name = nameOf(fullPath);
+        if (name.endsWith("/")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        if (name.isEmpty()) {
+            return false;
+        }
+        String payload = pcb.getPayload() == null ? "" : pcb.getPayload();
+        boolean isPublic = true;
+        String content = null;
+        if (payload.startsWith("PRIVATE:")) {
+            isPublic = false;
+            content = payload.substring("PRIVATE:".length());
+        } else if (payload.startsWith("PUBLIC:")) {
+            isPublic = true;
+            content = payload.substring("PUBLIC:".length());
+        } else {
+            content = payload;
+        }
+        return fileSystem.createFile(parent, name, Math.max(1, pcb.getRequestedBlocks()), pcb.getOwner(), isPublic, content, pcb.getPid()) != null;
+    }
+
+    private boolean performRead(ProcessControlBlock pcb) {
+        FileEntry file = fileSystem.getFile(pcb.getTargetPath());
+        if (file == null) {
+            return false;
+        }
+        int hitsBefore = buffer.getHits();
+        int missesBefore = buffer.getMisses();
+        int prefetchBefore = buffer.getPrefetchHits();
+        BlockChain chain = file.getChain();
+        for (int i = 0; i < chain.getLength(); i++) {
+            int index = chain.blockAt(i);
+            DiskBlock block = disk.getBlock(index);
+            if (block == null || block.isFree()) {
+                break;
+            }
+            buffer.readBlock(index);
+        }
+        int hitDelta = buffer.getHits() - hitsBefore;
+        int missDelta = buffer.getMisses() - missesBefore;
+        int prefetchDelta = buffer.getPrefetchHits() - prefetchBefore;
+        String data = fileSystem.readFileData(file);
+        if (data.length() > RESULT_PREVIEW_CHARS) {
+            data = data.substring(0, RESULT_PREVIEW_CHARS) + "...";
+        }
+        pcb.setResult("\"" + data.replace('\n', ' ') + "\" | hits: " + hitDelta + " | miss: " + missDelta
+                + " | prefetch: " + prefetchDelta);
+        return true;
+    }
+
+    private boolean performMkdir(ProcessControlBlock pcb) {
+        String fullPath = pcb.getTargetPath();
+        String parent = parentOf(fullPath);
+        String name = nameOf(fullPath);
+        return fileSystem.createDirectory(parent, name) != null;
+    }
+
+    private boolean performRename(ProcessControlBlock pcb) {
+        String newName = pcb.getPayload();
+        if (newName == null || newName.trim().isEmpty()) {
+            return false;
+        }
+        return fileSystem.renameNode(pcb.getTargetPath(), newName.trim());
+    }
+
+    private String parentOf(String fullPath) {
+        int lastSlash = fullPath.lastIndexOf('/');
+        if (lastSlash <= 0) {
+            return "/";
+        }
+        return fullPath.substring(0, lastSlash);
+    }
+
+    private String nameOf(String fullPath) {
+        int lastSlash = fullPath.lastIndexOf('/');
+        if (lastSlash == -1) {
+            return fullPath;
+        }
+        return fullPath.substring(lastSlash + 1);
+    }
+}
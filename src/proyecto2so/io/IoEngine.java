@@ -0,0 +1,367 @@
+package proyecto2so.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import proyecto2so.process.ProcessControlBlock;
+import proyecto2so.process.ProcessState;
+import proyecto2so.scheduler.DiskRequest;
+import proyecto2so.scheduler.DiskRequestQueue;
+import proyecto2so.scheduler.DiskScheduler;
+import proyecto2so.scheduler.RequestDispatcher;
+import proyecto2so.storage.Disk;
+
+/**
+ * Motor de E/S en segundo plano: uno o más hilos de disco toman las solicitudes de la cola en el
+ * orden del planificador, mueven el cabezal, ejecutan la operación y publican un evento de
+ * finalización. El estado simulado (disco, buffer, sistema de archivos y colas) se protege con
+ * un único candado justo que también debe tomar la interfaz para leerlo o modificarlo; al ser
+ * justo, un hilo de disco no acapara el candado entre una solicitud y la siguiente.
+ * <p>
+ * Los productores concurrentes usan {@link #offer}, que deja la solicitud en un
+ * {@link SubmissionInbox} sin tomar el candado; los hilos de disco vacían el buzón hacia la cola
+ * antes de cada selección, de modo que el planificador ve todo lo que llegó mientras tanto.
+ */
+public class IoEngine implements RequestSubmitter {
+
+    private final ReentrantLock lock;
+    private final Condition workAvailable;
+    private final Condition idle;
+    private final Disk disk;
+    private final DiskRequestQueue queue;
+    private final RequestDispatcher dispatcher;
+    private final RequestHandler handler;
+    private final SubmissionInbox inbox;
+    // Hilos de disco esperando trabajo; los productores solo toman el candado si hay alguno
+    private final AtomicInteger sleepers = new AtomicInteger();
+    private CompletionListener[] listeners = new CompletionListener[2];
+    private int listenerCount;
+    private Thread[] workers = new Thread[0];
+    private boolean running;
+    private int busy;
+    private long completed;
+
+    public IoEngine(Disk disk, DiskRequestQueue queue, RequestDispatcher dispatcher, RequestHandler handler) {
+        this(disk, queue, dispatcher, handler, new ReentrantLock(true));
+    }
+
+    /**
+     * @param lock candado del estado simulado; varios motores pueden compartirlo cuando sus
+     *             manejadores tocan el mismo sistema de archivos
+     */
+    public IoEngine(Disk disk, DiskRequestQueue queue, RequestDispatcher dispatcher, RequestHandler handler,
+            ReentrantLock lock) {
+        this.lock = lock;
+        this.workAvailable = lock.newCondition();
+        this.idle = lock.newCondition();
+        this.disk = disk;
+        this.queue = queue;
+        this.dispatcher = dispatcher;
+        this.handler = handler;
+        this.inbox = new SubmissionInbox(queue.capacity());
+    }
+
+    /**
+     * Candado que protege todo el estado simulado.
+     */
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
+    public DiskRequestQueue getQueue() {
+        return queue;
+    }
+
+    public RequestDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    public void addListener(CompletionListener listener) {
+        lock.lock();
+        try {
+            if (listenerCount == listeners.length) {
+                CompletionListener[] grown = new CompletionListener[listeners.length * 2];
+                System.arraycopy(listeners, 0, grown, 0, listenerCount);
+                listeners = grown;
+            }
+            listeners[listenerCount++] = listener;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void start() {
+        start(1);
+    }
+
+    /**
+     * Arranca {@code workerCount} hilos de disco. Solo uno a la vez sostiene el candado, así que
+     * varios hilos no atienden en paralelo: compiten por el disco como lo harían varios
+     * manejadores de interrupción sobre un mismo dispositivo.
+     */
+    public void start(int workerCount) {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            running = true;
+            workers = new Thread[Math.max(1, workerCount)];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        serviceLoop();
+                    }
+                }, workers.length == 1 ? "disk-worker" : "disk-worker-" + i);
+                workers[i].setDaemon(true);
+                workers[i].start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Detiene los hilos del disco tras la solicitud en curso; las pendientes quedan en la cola.
+     */
+    public void shutdown() throws InterruptedException {
+        Thread[] stopping;
+        lock.lock();
+        try {
+            running = false;
+            workAvailable.signalAll();
+            stopping = workers;
+            workers = new Thread[0];
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < stopping.length; i++) {
+            stopping[i].join();
+        }
+    }
+
+    /**
+     * Encola la solicitud y despierta al hilo del disco.
+     *
+     * @return false si la cola está llena
+     */
+    public boolean submit(DiskRequest request) {
+        lock.lock();
+        try {
+            if (!dispatcher.submit(queue, request)) {
+                return false;
+            }
+            if (request.getPcb() != null) {
+                request.getPcb().setState(ProcessState.BLOCKED);
+            }
+            workAvailable.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * true si la cola admite una solicitud más. Quien ya tiene el candado (por ejemplo, el común
+     * de un volumen) puede fiarse del resultado hasta soltarlo.
+     */
+    public boolean hasRoom() {
+        lock.lock();
+        try {
+            return queue.size() < queue.capacity();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entrega la solicitud sin tomar el candado, para productores concurrentes. El buzón admite
+     * tantas solicitudes como la cola; si al vaciarlo la cola está llena, el resto espera en el
+     * buzón hasta que se libere espacio.
+     *
+     * @return false si el buzón está lleno
+     */
+    @Override
+    public boolean offer(DiskRequest request) {
+        if (request.getPcb() != null) {
+            request.getPcb().setState(ProcessState.BLOCKED);
+        }
+        if (!inbox.offer(request)) {
+            return false;
+        }
+        if (sleepers.get() > 0) {
+            lock.lock();
+            try {
+                workAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Avisa al hilo del disco de solicitudes encoladas directamente (por ejemplo, al cargar un snapshot).
+     */
+    public void wake() {
+        lock.lock();
+        try {
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setScheduler(DiskScheduler scheduler) {
+        lock.lock();
+        try {
+            dispatcher.setScheduler(scheduler);
+            queue.setBatching(scheduler.isBatched());
+            queue.setArrivalOrdered(scheduler.isArrivalOrdered());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Espera a que la cola se vacíe y no haya una solicitud en curso.
+     *
+     * @return false si se agotó el tiempo
+     */
+    public boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (busy > 0 || queue.size() > 0 || !inbox.isEmpty()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = idle.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCompleted() {
+        lock.lock();
+        try {
+            return completed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void serviceLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                drainInbox();
+                while (running && queue.size() == 0) {
+                    if (busy == 0) {
+                        idle.signalAll();
+                    }
+                    // Se anuncia la espera antes de revisar el buzón otra vez: un productor que
+                    // apile después ve el contador y toma el candado para despertarnos
+                    sleepers.incrementAndGet();
+                    try {
+                        drainInbox();
+                        if (queue.size() == 0) {
+                            workAvailable.awaitUninterruptibly();
+                        }
+                    } finally {
+                        sleepers.decrementAndGet();
+                    }
+                    drainInbox();
+                }
+                if (!running) {
+                    return;
+                }
+                busy++;
+                try {
+                    serve(dispatcher.dispatchNext(disk.getHeadPosition(), queue));
+                } finally {
+                    busy--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void drainInbox() {
+        while (queue.size() < queue.capacity()) {
+            DiskRequest request = inbox.poll();
+            if (request == null) {
+                return;
+            }
+            if (!isAbandoned(request)) {
+                dispatcher.submit(queue, request);
+            }
+        }
+    }
+
+    /**
+     * true si el proceso de la solicitud ya terminó antes de encolarla, por ejemplo porque se
+     * descartó al cargar un snapshot; su solicitud ya no debe tocar el disco.
+     */
+    private static boolean isAbandoned(DiskRequest request) {
+        DiskRequest owner = request.getGroup() != null ? request.getGroup() : request;
+        return owner.getPcb() != null && owner.getPcb().getState() == ProcessState.TERMINATED;
+    }
+
+    private void serve(DiskRequest request) {
+        if (request == null) {
+            return;
+        }
+        disk.setHeadPosition(request.getServedBlock());
+        if (!request.isFinished()) {
+            return;
+        }
+        for (DiskRequest served = request; served != null; served = served.getMerged()) {
+            complete(served);
+        }
+    }
+
+    /**
+     * Ejecuta la operación de una solicitud ya atendida, incluidas las que viajan fusionadas. La
+     * parte de una operación repartida entre discos solo la completa si es la última en terminar,
+     * aunque la principal se haya atendido en otro disco.
+     */
+    private void complete(DiskRequest request) {
+        DiskRequest group = request.getGroup();
+        if (group != null) {
+            if (!request.closesGroup()) {
+                return;
+            }
+            request = group;
+        }
+        ProcessControlBlock pcb = request.getPcb();
+        if (pcb != null) {
+            pcb.setState(ProcessState.RUNNING);
+        }
+        boolean success;
+        try {
+            success = handler.execute(request);
+        } catch (RuntimeException ex) {
+            success = false;
+            if (pcb != null) {
+                pcb.setResult("Error: " + ex.getMessage());
+            }
+        }
+        if (pcb != null) {
+            pcb.setState(ProcessState.TERMINATED);
+        }
+        completed++;
+        for (int i = 0; i < listenerCount; i++) {
+            listeners[i].requestCompleted(request, success);
+        }
+        if (pcb != null && pcb.getThread() != null) {
+            LockSupport.unpark(pcb.getThread());
+        }
+    }
+}
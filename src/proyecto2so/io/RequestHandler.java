@@ -0,0 +1,12 @@
+package proyecto2so.io;
+
+import proyecto2so.scheduler.DiskRequest;
+
+/**
+ * Ejecuta la operación de una solicitud ya atendida por el disco. Se invoca desde el hilo del
+ * disco con el candado del motor tomado.
+ */
+public interface RequestHandler {
+
+    boolean execute(DiskRequest request);
+}
@@ -0,0 +1,15 @@
+package proyecto2so.io;
+
+import proyecto2so.scheduler.DiskRequest;
+
+/**
+ * Punto de entrada sin candado para productores concurrentes: un {@link IoEngine} o un
+ * {@link VolumeEngine} que reparte entre varios discos.
+ */
+public interface RequestSubmitter {
+
+    /**
+     * @return false si no hay espacio para la solicitud en este momento
+     */
+    boolean offer(DiskRequest request);
+}
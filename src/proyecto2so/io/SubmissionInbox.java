@@ -0,0 +1,89 @@
+package proyecto2so.io;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import proyecto2so.scheduler.DiskRequest;
+
+/**
+ * Buzón sin candados para que muchos hilos productores entreguen solicitudes al motor de E/S.
+ * Los productores las apilan con compare-and-set (pila de Treiber) y un único consumidor, el
+ * hilo de disco que tenga el candado del motor, retira la pila completa de una vez y la invierte
+ * para recuperar el orden de llegada. Así los productores nunca compiten por el candado del
+ * estado simulado.
+ */
+public class SubmissionInbox {
+
+    private static final class Node {
+        final DiskRequest request;
+        Node next;
+
+        Node(DiskRequest request) {
+            this.request = request;
+        }
+    }
+
+    private final AtomicReference<Node> top = new AtomicReference<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final int limit;
+
+    // Lado del consumidor: lote ya invertido, solo se toca con el candado del motor
+    private Node consumed;
+
+    public SubmissionInbox(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    /**
+     * Apila la solicitud desde cualquier hilo.
+     *
+     * @return false si el buzón alcanzó su límite
+     */
+    public boolean offer(DiskRequest request) {
+        if (count.incrementAndGet() > limit) {
+            count.decrementAndGet();
+            return false;
+        }
+        Node node = new Node(request);
+        Node current;
+        do {
+            current = top.get();
+            node.next = current;
+        } while (!top.compareAndSet(current, node));
+        return true;
+    }
+
+    /**
+     * Retira la solicitud más antigua. Solo debe llamarla un consumidor a la vez.
+     */
+    public DiskRequest poll() {
+        if (consumed == null) {
+            Node batch = top.getAndSet(null);
+            Node reversed = null;
+            while (batch != null) {
+                Node next = batch.next;
+                batch.next = reversed;
+                reversed = batch;
+                batch = next;
+            }
+            consumed = reversed;
+            if (consumed == null) {
+                return null;
+            }
+        }
+        Node node = consumed;
+        consumed = node.next;
+        count.decrementAndGet();
+        return node.request;
+    }
+
+    /**
+     * Solicitudes apiladas o retiradas que aún no pasan a la cola del disco.
+     */
+    public int size() {
+        return count.get();
+    }
+
+    public boolean isEmpty() {
+        return count.get() == 0;
+    }
+}
@@ -0,0 +1,88 @@
+package proyecto2so.io;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import proyecto2so.process.ProcessControlBlock;
+import proyecto2so.process.ProcessQueue;
+import proyecto2so.process.ProcessState;
+import proyecto2so.scheduler.DiskRequest;
+
+/**
+ * Modo de ejecución con un hilo virtual por proceso simulado. El hilo recorre el ciclo de vida
+ * del PCB por sí mismo: espera un lugar en la tabla de procesos, pasa a READY, entrega su
+ * solicitud al motor de E/S y queda estacionado mientras está BLOCKED; el hilo de disco lo
+ * despierta al dejarlo TERMINATED. Un hilo virtual estacionado no ocupa un hilo de plataforma,
+ * así que pueden convivir cientos de miles de procesos. Cargar un snapshot termina con error a
+ * los procesos en la tabla y los despierta, así liberan su lugar aunque su solicitud se pierda.
+ */
+public class VirtualProcessRunner {
+
+    // Pausa antes de reintentar cuando la tabla de procesos o el buzón están llenos
+    private static final long RETRY_NANOS = 100_000L;
+
+    private final RequestSubmitter engine;
+    private final ProcessQueue processQueue;
+    private final Semaphore admission;
+    private final AtomicInteger live = new AtomicInteger();
+
+    /**
+     * @param maxAdmitted procesos que pueden estar a la vez en la tabla; el resto espera estacionado
+     */
+    public VirtualProcessRunner(RequestSubmitter engine, ProcessQueue processQueue, int maxAdmitted) {
+        this.engine = engine;
+        this.processQueue = processQueue;
+        this.admission = new Semaphore(Math.max(1, maxAdmitted));
+    }
+
+    /**
+     * Arranca el hilo virtual del proceso; su operación se atenderá sobre {@code targetBlock}.
+     */
+    public Thread spawn(ProcessControlBlock pcb, int targetBlock) {
+        return spawn(pcb, new int[]{targetBlock});
+    }
+
+    /**
+     * Arranca el hilo virtual del proceso; su operación se atenderá sobre {@code blocks} por
+     * tramos consecutivos.
+     */
+    public Thread spawn(final ProcessControlBlock pcb, final int[] blocks) {
+        live.incrementAndGet();
+        return Thread.ofVirtual().name("process-" + pcb.getPid()).start(new Runnable() {
+            @Override
+            public void run() {
+                runProcess(pcb, blocks);
+            }
+        });
+    }
+
+    private void runProcess(ProcessControlBlock pcb, int[] blocks) {
+        pcb.setThread(Thread.currentThread());
+        admission.acquireUninterruptibly();
+        try {
+            while (!processQueue.enqueue(pcb)) {
+                LockSupport.parkNanos(RETRY_NANOS);
+            }
+            pcb.setState(ProcessState.READY);
+            DiskRequest request = new DiskRequest(pcb, blocks);
+            while (!engine.offer(request)) {
+                LockSupport.parkNanos(RETRY_NANOS);
+            }
+            while (pcb.getState() != ProcessState.TERMINATED) {
+                LockSupport.park(pcb);
+            }
+            processQueue.removeByPid(pcb.getPid());
+        } finally {
+            pcb.setThread(null);
+            admission.release();
+            live.decrementAndGet();
+        }
+    }
+
+    /**
+     * Procesos arrancados que aún no terminan.
+     */
+    public int getLiveCount() {
+        return live.get();
+    }
+}
@@ -0,0 +1,319 @@
+package proyecto2so.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import proyecto2so.process.OperationType;
+import proyecto2so.process.ProcessControlBlock;
+import proyecto2so.scheduler.DiskRequest;
+import proyecto2so.scheduler.DiskRequestQueue;
+import proyecto2so.scheduler.DiskScheduler;
+import proyecto2so.scheduler.HddTimingModel;
+import proyecto2so.scheduler.IoStats;
+import proyecto2so.scheduler.RequestDispatcher;
+import proyecto2so.scheduler.SchedulerFactory;
+import proyecto2so.storage.Disk;
+import proyecto2so.storage.MirroredVolume;
+import proyecto2so.storage.Volume;
+
+/**
+ * E/S sobre un {@link Volume}: cada disco miembro tiene su propia cola, planificador, reloj
+ * simulado e {@link IoEngine} con su hilo de disco. Las solicitudes llegan con bloques lógicos
+ * y se reenvían al disco que los guarda con bloques físicos, así que los oyentes y el manejador
+ * reciben la solicitud física. El cabezal del disco lógico sigue al último bloque atendido para
+ * que la interfaz y el read-ahead del buffer vean una posición con sentido.
+ * <p>
+ * Si los bloques de una solicitud caen en varios discos de un volumen en franjas, el disco de
+ * su primer bloque recibe la parte con el PCB y los demás una parte sin PCB con sus bloques,
+ * que se atienden en paralelo. El proceso termina, y el manejador ejecuta la operación, cuando
+ * termina la última parte, en el disco que sea (ver {@link DiskRequest#addPart}).
+ * <p>
+ * En un {@link MirroredVolume} las lecturas van a la réplica que elige el volumen y las
+ * escrituras a todas: la réplica elegida recibe la solicitud con el PCB y las demás una copia
+ * sin PCB que solo ocupa su cabezal y su tiempo de servicio. Las copias son partes de la
+ * escritura, que termina cuando terminan todas las réplicas; cuentan su recorrido pero no
+ * cuentan como solicitudes ni en las latencias.
+ * Las colas de los discos fusionan solicitudes contiguas y coalescen lecturas repetidas, salvo
+ * con FIFO (ver {@link DiskRequestQueue}).
+ */
+public class VolumeEngine implements RequestSubmitter {
+
+    private static final long RETRY_NANOS = 100_000L;
+
+    private final Volume volume;
+    private final IoEngine[] engines;
+    private String schedulerName;
+
+    /**
+     * @param sharedLock candado común a todos los discos cuando el manejador toca estado
+     *                   compartido (el sistema de archivos de la interfaz), o null para que cada
+     *                   disco tenga el suyo y atienda en paralelo
+     */
+    public VolumeEngine(Volume volume, int queueCapacity, String schedulerName, RequestHandler handler,
+            ReentrantLock sharedLock) {
+        this.volume = volume;
+        this.engines = new IoEngine[volume.getDiskCount()];
+        for (int i = 0; i < engines.length; i++) {
+            Disk member = volume.getMember(i);
+            DiskScheduler scheduler = SchedulerFactory.create(schedulerName, member.capacity());
+            RequestDispatcher dispatcher = new RequestDispatcher(scheduler, new HddTimingModel(member.capacity()));
+            DiskRequestQueue queue = new DiskRequestQueue(queueCapacity);
+            queue.setMerging(true);
+            engines[i] = new IoEngine(member, queue, dispatcher, handler,
+                    sharedLock != null ? sharedLock : new ReentrantLock(true));
+            engines[i].setScheduler(scheduler);
+            this.schedulerName = scheduler.getName();
+            if (engines.length > 1) {
+                final int memberIndex = i;
+                engines[i].addListener(new CompletionListener() {
+                    @Override
+                    public void requestCompleted(DiskRequest request, boolean success) {
+                        // La solicitud puede ser de otro disco si aquí terminó su última parte
+                        Disk disk = VolumeEngine.this.volume.getMember(memberIndex);
+                        VolumeEngine.this.volume.getLogicalDisk().setHeadPosition(
+                                VolumeEngine.this.volume.logicalBlock(memberIndex, disk.getHeadPosition()));
+                    }
+                });
+            }
+        }
+    }
+
+    public Volume getVolume() {
+        return volume;
+    }
+
+    public int getDiskCount() {
+        return engines.length;
+    }
+
+    public IoEngine getEngine(int member) {
+        return engines[member];
+    }
+
+    /**
+     * Candado del primer disco; si se construyó con un candado común, es el de todo el volumen.
+     */
+    public ReentrantLock getLock() {
+        return engines[0].getLock();
+    }
+
+    /**
+     * Colas de cada disco, con bloques físicos.
+     */
+    public DiskRequestQueue[] getQueues() {
+        DiskRequestQueue[] queues = new DiskRequestQueue[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            queues[i] = engines[i].getQueue();
+        }
+        return queues;
+    }
+
+    /**
+     * Parte de la solicitud que atiende {@code member}, con bloques físicos, o null si ese disco
+     * no guarda ninguno de sus bloques.
+     */
+    private DiskRequest toMember(DiskRequest request, ProcessControlBlock pcb, int member) {
+        if (engines.length == 1) {
+            return request;
+        }
+        int total = request.getBlockTotal();
+        if (total == 1) {
+            int block = request.getTargetBlock();
+            return holds(member, block) ? new DiskRequest(pcb, volume.physicalBlock(block)) : null;
+        }
+        int count = 0;
+        for (int i = 0; i < total; i++) {
+            if (holds(member, request.getBlock(i))) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        int[] physical = new int[count];
+        int next = 0;
+        for (int i = 0; i < total; i++) {
+            int block = request.getBlock(i);
+            if (holds(member, block)) {
+                physical[next++] = volume.physicalBlock(block);
+            }
+        }
+        return new DiskRequest(pcb, physical);
+    }
+
+    private boolean holds(int member, int logicalBlock) {
+        return volume.isMirrored() || volume.memberOf(logicalBlock) == member;
+    }
+
+    /**
+     * Disco que recibe la solicitud con el PCB.
+     */
+    private int primaryFor(DiskRequest request) {
+        if (engines.length == 1) {
+            return 0;
+        }
+        if (!volume.isMirrored()) {
+            return volume.memberOf(request.getTargetBlock());
+        }
+        int[] depths = new int[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            // Lectura sin candado: basta una estimación de la carga
+            depths[i] = engines[i].getQueue().size();
+        }
+        return ((MirroredVolume) volume).selectReplica(request.getTargetBlock(), depths);
+    }
+
+    private static boolean isWrite(DiskRequest request) {
+        ProcessControlBlock pcb = request.getPcb();
+        return pcb != null && pcb.getOperation() != OperationType.READ;
+    }
+
+    /**
+     * Encola la solicitud con el PCB en {@code primary} y las partes sin PCB en los demás discos:
+     * las copias de una escritura espejada o los bloques que guardan otros discos de las franjas.
+     * Las partes se suman a la principal antes de encolar nada y no se descartan: si la cola de
+     * su disco está llena se reintenta hasta que haya lugar. Con el candado tomado se comprueba
+     * antes que todas las colas tengan lugar, para no esperar con él.
+     */
+    private boolean route(DiskRequest request, boolean locked) {
+        int primary = primaryFor(request);
+        DiskRequest main = toMember(request, request.getPcb(), primary);
+        DiskRequest[] parts = new DiskRequest[engines.length];
+        if (!volume.isMirrored() || isWrite(request)) {
+            for (int i = 0; i < engines.length; i++) {
+                if (i != primary) {
+                    parts[i] = toMember(request, null, i);
+                    if (parts[i] != null) {
+                        main.addPart(parts[i]);
+                    }
+                }
+            }
+        }
+        if (locked && main.getGroup() != null) {
+            for (int i = 0; i < engines.length; i++) {
+                if ((i == primary || parts[i] != null) && !engines[i].hasRoom()) {
+                    main.clearParts();
+                    return false;
+                }
+            }
+        }
+        if (!send(primary, main, locked)) {
+            main.clearParts();
+            return false;
+        }
+        for (int i = 0; i < engines.length; i++) {
+            if (parts[i] == null) {
+                continue;
+            }
+            while (!send(i, parts[i], locked)) {
+                LockSupport.parkNanos(RETRY_NANOS);
+            }
+        }
+        return true;
+    }
+
+    private boolean send(int member, DiskRequest request, boolean locked) {
+        return locked ? engines[member].submit(request) : engines[member].offer(request);
+    }
+
+    /**
+     * Encola la solicitud de bloques lógicos en sus discos tomando el candado de cada uno.
+     *
+     * @return false si la cola del disco principal, o la de otro disco con bloques de la
+     *         solicitud, está llena
+     */
+    public boolean submit(DiskRequest request) {
+        return route(request, true);
+    }
+
+    @Override
+    public boolean offer(DiskRequest request) {
+        return route(request, false);
+    }
+
+    public void wake() {
+        for (int i = 0; i < engines.length; i++) {
+            engines[i].wake();
+        }
+    }
+
+    public String getSchedulerName() {
+        return schedulerName;
+    }
+
+    /**
+     * Cambia el planificador de todos los discos; cada uno recibe su propia instancia.
+     */
+    public void setScheduler(String name) {
+        for (int i = 0; i < engines.length; i++) {
+            DiskScheduler scheduler = SchedulerFactory.create(name, volume.getMember(i).capacity());
+            engines[i].setScheduler(scheduler);
+            schedulerName = scheduler.getName();
+        }
+    }
+
+    public void addListener(CompletionListener listener) {
+        for (int i = 0; i < engines.length; i++) {
+            engines[i].addListener(listener);
+        }
+    }
+
+    public void start() {
+        start(1);
+    }
+
+    /**
+     * Arranca {@code workersPerDisk} hilos en cada disco.
+     */
+    public void start(int workersPerDisk) {
+        for (int i = 0; i < engines.length; i++) {
+            engines[i].start(workersPerDisk);
+        }
+    }
+
+    public void shutdown() throws InterruptedException {
+        for (int i = 0; i < engines.length; i++) {
+            engines[i].shutdown();
+        }
+    }
+
+    public boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (int i = 0; i < engines.length; i++) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (!engines[i].awaitIdle(Math.max(0, remaining))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Total atendido por todos los discos. No debe llamarse desde un oyente si los discos tienen
+     * candados distintos, porque toma el de cada uno.
+     */
+    public long getCompleted() {
+        long total = 0;
+        for (int i = 0; i < engines.length; i++) {
+            total += engines[i].getCompleted();
+        }
+        return total;
+    }
+
+    /**
+     * Estadísticas del planificador actual sumadas sobre todos los discos.
+     */
+    public IoStats getStats() {
+        IoStats merged = new IoStats(schedulerName);
+        for (int i = 0; i < engines.length; i++) {
+            ReentrantLock lock = engines[i].getLock();
+            lock.lock();
+            try {
+                merged.merge(engines[i].getDispatcher().getStats());
+            } finally {
+                lock.unlock();
+            }
+        }
+        return merged;
+    }
+}
@@ -2,11 +2,12 @@ package proyecto2so.persistence;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
 import proyecto2so.filesystem.FileEntry;
 import proyecto2so.filesystem.FileSystemNode;
 import proyecto2so.filesystem.FileSystemService;
@@ -19,60 +20,207 @@ import proyecto2so.scheduler.DiskRequestQueue;
 import proyecto2so.storage.BufferManager;
 import proyecto2so.storage.Disk;
 import proyecto2so.storage.DiskBlock;
+import proyecto2so.storage.StripedVolume;
+import proyecto2so.storage.Volume;
 
 /**
  * Serializa/deserializa el estado completo del simulador sin librerías externas.
+ * <p>
+ * Un snapshot completo guarda solo los bloques ocupados; al cargarlo el resto queda libre. Uno
+ * incremental guarda los metadatos completos y solo los bloques modificados desde el snapshot
+ * anterior (guardado o cargado), que es su base: se carga encima del disco después de la base y
+ * de los incrementales previos, en orden, y se rechaza si la base no es el último cargado.
+ * <p>
+ * Un disco en archivo ({@code disk.file}) conserva sus bloques entre ejecuciones pero no el
+ * árbol; {@link #saveTree} y {@link #loadTree} guardan y reconstruyen solo la sección de
+ * archivos, con el mismo formato, en un archivo aparte junto a la imagen.
  */
 public class PersistenceService {
 
     private static final String HEADER = "P2SO_SNAPSHOT 1";
+    private static final String DELTA_HEADER = "P2SO_SNAPSHOT_DELTA 1";
+    private static final String TREE_HEADER = "P2SO_TREE 1";
     private final FileSystemService fileSystem;
     private final Disk disk;
     private final ProcessQueue processQueue;
-    private final DiskRequestQueue requestQueue;
+    private final Volume volume;
+    private final DiskRequestQueue[] requestQueues;
     private final BufferManager buffer;
+    // Identificador del último snapshot que refleja el disco, o 0 si no hay ninguno
+    private long snapshotId;
 
     public PersistenceService(FileSystemService fs, Disk disk, ProcessQueue pq, DiskRequestQueue rq, BufferManager buffer) {
+        this(fs, new StripedVolume(disk), pq, new DiskRequestQueue[]{rq}, buffer);
+    }
+
+    /**
+     * Variante para un volumen de varios discos: {@code rqs[i]} es la cola del disco {@code i} y
+     * sus solicitudes se guardan con el bloque lógico.
+     */
+    public PersistenceService(FileSystemService fs, Volume volume, ProcessQueue pq, DiskRequestQueue[] rqs,
+            BufferManager buffer) {
         this.fileSystem = fs;
-        this.disk = disk;
+        this.disk = volume.getLogicalDisk();
+        this.volume = volume;
         this.processQueue = pq;
-        this.requestQueue = rq;
+        this.requestQueues = rqs;
         this.buffer = buffer;
     }
 
     public boolean save(String filePath) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            writer.println(HEADER);
+        return write(filePath, false);
+    }
+
+    /**
+     * Guarda solo los bloques modificados desde el último snapshot. Si todavía no hay una base
+     * (nada se guardó ni cargó en esta sesión) guarda un snapshot completo.
+     */
+    public boolean saveIncremental(String filePath) {
+        return write(filePath, snapshotId != 0);
+    }
+
+    /**
+     * true si el disco o el buffer cambiaron desde el último snapshot guardado o cargado. Un
+     * incremental solo describe los cambios sobre su base, así que aplicarlo sobre otro estado
+     * dejaría bloques que ningún archivo referencia o cadenas apuntando a datos ajenos.
+     */
+    public boolean hasChangesSinceSnapshot() {
+        return disk.nextDirtyBlock(0) >= 0 || buffer.getDirtyCount() > 0;
+    }
+
+    /**
+     * true si el archivo es un snapshot incremental.
+     */
+    public boolean isIncremental(String filePath) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String first = reader.readLine();
+            return first != null && DELTA_HEADER.equals(first.trim());
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Guarda solo el árbol de directorios y la tabla de archivos; los bloques quedan en la imagen
+     * del disco. Baja antes los bloques sucios del buffer para que la imagen coincida con el árbol.
+     */
+    public boolean saveTree(String filePath) {
+        buffer.sync();
+        try (SnapshotWriter writer = new SnapshotWriter(Paths.get(filePath))) {
+            writer.line(TREE_HEADER);
+            writeFileSystem(writer);
+            writer.commit();
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Reconstruye el árbol guardado con {@link #saveTree} sobre los bloques que ya tiene el disco.
+     *
+     * @return false si el archivo no existe o no es un árbol guardado; el árbol queda vacío
+     */
+    public boolean loadTree(String filePath) {
+        fileSystem.clearTree();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String first = reader.readLine();
+            if (first == null || !TREE_HEADER.equals(first.trim())) {
+                return false;
+            }
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty() && !"FS".equals(trimmed) && !"END_FS".equals(trimmed)) {
+                    parseFileSystemLine(trimmed);
+                }
+            }
+        } catch (IOException ex) {
+            fileSystem.clearTree();
+            return false;
+        }
+        fileSystem.rebuildChains();
+        return true;
+    }
+
+    /**
+     * Identificador del último snapshot guardado o cargado, o 0 si no hay ninguno.
+     */
+    public long getSnapshotId() {
+        return snapshotId;
+    }
+
+    private boolean write(String filePath, boolean incremental) {
+        buffer.sync();
+        long id = nextSnapshotId();
+        try (SnapshotWriter writer = new SnapshotWriter(Paths.get(filePath))) {
+            writer.line(incremental ? DELTA_HEADER : HEADER);
+            writer.line("SNAPSHOT|" + id + "|" + (incremental ? snapshotId : 0));
             writeFileSystem(writer);
-            writeDisk(writer);
+            writeDisk(writer, incremental);
             writeProcesses(writer);
             writeRequests(writer);
             writeBufferStats(writer);
-            return true;
+            writer.commit();
         } catch (IOException ex) {
             return false;
         }
+        snapshotId = id;
+        disk.clearDirty();
+        return true;
+    }
+
+    private static long nextSnapshotId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
     }
 
     /**
      * Loads snapshot data. Returns the highest PID found (to adjust pid sequence) or -1 on failure.
+     * An incremental snapshot is applied on top of the current disk and only if its base is the
+     * last snapshot saved or loaded and nothing changed since then (see {@link #hasChangesSinceSnapshot()}).
      */
     public int load(String filePath) {
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String first = reader.readLine();
-            if (first == null || !HEADER.equals(first.trim())) {
+            if (first == null) {
                 return -1;
             }
-            fileSystem.reset();
-            disk.reset();
+            boolean incremental = DELTA_HEADER.equals(first.trim());
+            if (!incremental && !HEADER.equals(first.trim())) {
+                return -1;
+            }
+            String line = reader.readLine();
+            long id = 0;
+            long base = 0;
+            if (line != null && line.startsWith("SNAPSHOT|")) {
+                String[] parts = line.trim().split("\\|", -1);
+                id = parts.length > 1 ? parseLong(parts[1]) : 0;
+                base = parts.length > 2 ? parseLong(parts[2]) : 0;
+                line = reader.readLine();
+            }
+            if (incremental && (base == 0 || base != snapshotId || hasChangesSinceSnapshot())) {
+                return -1;
+            }
+            if (incremental) {
+                fileSystem.clearTree();
+            } else {
+                fileSystem.reset();
+                disk.reset();
+            }
+            ProcessControlBlock[] abandoned = processQueue.toArray();
             processQueue.clear();
-            requestQueue.clear();
+            abandon(abandoned);
+            for (int i = 0; i < requestQueues.length; i++) {
+                requestQueues[i].clear();
+            }
             buffer.reset();
 
             Section section = Section.NONE;
-            String line;
             int maxPid = 0;
-            while ((line = reader.readLine()) != null) {
+            for (; line != null; line = reader.readLine()) {
                 String trimmed = line.trim();
                 if (trimmed.isEmpty()) {
                     continue;
@@ -141,28 +289,53 @@ public class PersistenceService {
                         break;
                 }
             }
+            fileSystem.rebuildChains();
+            snapshotId = id;
+            disk.clearDirty();
             return maxPid;
         } catch (IOException ex) {
             return -1;
         }
     }
 
-    private void writeFileSystem(PrintWriter writer) {
-        writer.println("FS");
+    /**
+     * Termina con error los procesos de la sesión que se descarta y despierta a los que esperan
+     * estacionados su E/S (ver {@link proyecto2so.io.VirtualProcessRunner}): sus solicitudes se
+     * pierden con las colas y los motores descartan las que aún estén en su buzón. Se llama
+     * después de vaciar la tabla, para no borrar a los procesos que entren en su lugar.
+     */
+    private void abandon(ProcessControlBlock[] processes) {
+        for (int i = 0; i < processes.length; i++) {
+            ProcessControlBlock pcb = processes[i];
+            if (pcb.getState() == ProcessState.TERMINATED) {
+                continue;
+            }
+            pcb.setResult("Error: descartado al cargar un snapshot");
+            pcb.setState(ProcessState.TERMINATED);
+            Thread thread = pcb.getThread();
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private void writeFileSystem(SnapshotWriter writer) throws IOException {
+        writer.line("FS");
         writeChildren(fileSystem.getRoot(), "/", writer);
-        writer.println("END_FS");
+        writer.line("END_FS");
     }
 
-    private void writeChildren(FileSystemNode parent, String currentPath, PrintWriter writer) {
+    private void writeChildren(FileSystemNode parent, String currentPath, SnapshotWriter writer)
+            throws IOException {
         FileSystemNode child = parent.getFirstChild();
         while (child != null) {
             String childPath = "/".equals(currentPath) ? currentPath + child.getName() : currentPath + "/" + child.getName();
             if (child.isDirectory()) {
-                writer.println("DIR|" + encode(childPath));
+                writer.line("DIR|" + encode(childPath));
                 writeChildren(child, childPath, writer);
             } else {
                 FileEntry file = (FileEntry) child;
-                writer.println("FILE|" + encode(childPath) + "|" + encode(file.getOwner()) + "|" + file.getBlockCount()
+                writer.line("FILE|" + encode(childPath) + "|" + encode(file.getOwner()) + "|" + file.getBlockCount()
                     + "|" + file.getFirstBlockIndex() + "|" + (file.isPublicReadable() ? 1 : 0) + "|" + encode(file.getColorHex())
                     + "|" + file.getCreatedByPid());
             }
@@ -170,45 +343,73 @@ public class PersistenceService {
         }
     }
 
-    private void writeDisk(PrintWriter writer) {
-        writer.println("DISK");
-        writer.println("HEAD|" + disk.getHeadPosition());
-        DiskBlock[] blocks = disk.getBlocks();
-        for (int i = 0; i < blocks.length; i++) {
-            DiskBlock block = blocks[i];
-            writer.println("BLOCK|" + i + "|" + (block.isFree() ? 1 : 0) + "|" + encode(block.getOwnerId())
-                    + "|" + block.getNextIndex() + "|" + encode(block.getData()));
+    /**
+     * Guarda los bloques ocupados o, en un incremental, los modificados (también los liberados,
+     * para que la carga los libere).
+     */
+    private void writeDisk(SnapshotWriter writer, boolean incremental) throws IOException {
+        writer.line("DISK");
+        writer.line("HEAD|" + disk.getHeadPosition());
+        byte[] data = new byte[disk.getBlockSize()];
+        int capacity = disk.capacity();
+        int i = incremental ? disk.nextDirtyBlock(0) : disk.freeRunEnd(0);
+        while (i >= 0 && i < capacity) {
+            DiskBlock block = disk.getBlock(i);
+            int count = block.read(data, 0);
+            writer.append("BLOCK|").append(i).append('|').append(block.isFree() ? '1' : '0').append('|')
+                    .append(encode(block.getOwnerId())).append('|').append(block.getNextIndex()).append('|')
+                    .appendBase64(data, count).newLine();
+            i = incremental ? disk.nextDirtyBlock(i + 1) : disk.freeRunEnd(i + 1);
         }
-        writer.println("END_DISK");
+        writer.line("END_DISK");
     }
 
-    private void writeProcesses(PrintWriter writer) {
-        writer.println("PROC");
-        for (int i = 0; i < processQueue.size(); i++) {
-            ProcessControlBlock pcb = processQueue.get(i);
-            writer.println("PCB|" + pcb.getPid() + "|" + pcb.getOperation().name() + "|" + pcb.getState().name()
+    private void writeProcesses(SnapshotWriter writer) throws IOException {
+        writer.line("PROC");
+        ProcessControlBlock[] processes = processQueue.toArray();
+        for (int i = 0; i < processes.length; i++) {
+            ProcessControlBlock pcb = processes[i];
+            writer.line("PCB|" + pcb.getPid() + "|" + pcb.getOperation().name() + "|" + pcb.getState().name()
                     + "|" + encode(pcb.getTargetPath()) + "|" + encode(pcb.getOwner()) + "|" + pcb.getRequestedBlocks()
                     + "|" + encode(pcb.getPayload()));
         }
-        writer.println("END_PROC");
+        writer.line("END_PROC");
     }
 
-    private void writeRequests(PrintWriter writer) {
-        writer.println("REQ");
-        for (int i = 0; i < requestQueue.size(); i++) {
-            DiskRequest req = requestQueue.get(i);
-            if (req == null || req.getPcb() == null) {
-                continue;
+    private void writeRequests(SnapshotWriter writer) throws IOException {
+        writer.line("REQ");
+        for (int q = 0; q < requestQueues.length; q++) {
+            DiskRequestQueue requestQueue = requestQueues[q];
+            for (int i = 0; i < requestQueue.size(); i++) {
+                // Las fusionadas se guardan por separado con su propio bloque
+                for (DiskRequest req = requestQueue.get(i); req != null; req = req.getMerged()) {
+                    if (req.getPcb() == null) {
+                        continue;
+                    }
+                    StringBuilder line = new StringBuilder();
+                    line.append("REQ|").append(req.getPcb().getPid()).append('|')
+                            .append(volume.logicalBlock(q, req.getTargetBlock()));
+                    if (req.getBlockTotal() > 1) {
+                        // Bloques que faltan por atender, empezando por el tramo actual
+                        line.append('|');
+                        for (int b = req.getServedBlocks(); b < req.getBlockTotal(); b++) {
+                            if (b > req.getServedBlocks()) {
+                                line.append(',');
+                            }
+                            line.append(volume.logicalBlock(q, req.getBlock(b)));
+                        }
+                    }
+                    writer.line(line.toString());
+                }
             }
-            writer.println("REQ|" + req.getPcb().getPid() + "|" + req.getTargetBlock());
         }
-        writer.println("END_REQ");
+        writer.line("END_REQ");
     }
 
-    private void writeBufferStats(PrintWriter writer) {
-        writer.println("BUFFER");
-        writer.println("STATS|" + buffer.getHits() + "|" + buffer.getMisses());
-        writer.println("END_BUFFER");
+    private void writeBufferStats(SnapshotWriter writer) throws IOException {
+        writer.line("BUFFER");
+        writer.line("STATS|" + buffer.getHits() + "|" + buffer.getMisses());
+        writer.line("END_BUFFER");
     }
 
     private void parseFileSystemLine(String line) {
@@ -247,7 +448,7 @@ public class PersistenceService {
             boolean free = "1".equals(parts[2]);
             String owner = decode(parts[3]);
             int next = parseInt(parts[4]);
-            String data = decode(parts[5]);
+            byte[] data = parts[5].isEmpty() ? new byte[0] : Base64.getDecoder().decode(parts[5]);
             DiskBlock block = disk.getBlock(index);
             if (block == null) {
                 return;
@@ -256,7 +457,7 @@ public class PersistenceService {
             if (!free) {
                 block.occupy(owner);
                 block.setNextIndex(next);
-                block.setData(data);
+                block.write(data, 0, data.length);
             }
         }
     }
@@ -292,7 +493,26 @@ public class PersistenceService {
         if (pcb == null) {
             return;
         }
-        requestQueue.enqueue(new DiskRequest(pcb, target));
+        if (target < 0 || target >= disk.capacity()) {
+            return;
+        }
+        int member = volume.memberOf(target);
+        DiskRequest request;
+        if (parts.length > 3 && !parts[3].isEmpty()) {
+            String[] listed = parts[3].split(",");
+            int[] blocks = new int[listed.length];
+            for (int i = 0; i < listed.length; i++) {
+                int block = parseInt(listed[i]);
+                if (block < 0 || block >= disk.capacity() || volume.memberOf(block) != member) {
+                    return;
+                }
+                blocks[i] = volume.physicalBlock(block);
+            }
+            request = new DiskRequest(pcb, blocks);
+        } else {
+            request = new DiskRequest(pcb, volume.physicalBlock(target));
+        }
+        requestQueues[member].enqueue(request);
     }
 
     private void parseBufferLine(String line) {
@@ -356,6 +576,14 @@ public class PersistenceService {
         return path.substring(idx + 1);
     }
 
+    private long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
     private int parseInt(String value) {
         try {
             return Integer.parseInt(value);
@@ -0,0 +1,128 @@
+package proyecto2so.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Escribe un snapshot de texto por un {@link FileChannel} con un búfer propio. Las líneas de
+ * bloque se arman directamente en bytes, con el contenido en Base64 sobre un arreglo reutilizado. El
+ * archivo se escribe aparte y reemplaza al destino solo al cerrarse bien, así un fallo a medias
+ * no deja un snapshot truncado.
+ */
+final class SnapshotWriter implements Closeable {
+
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final Base64.Encoder BASE64 = Base64.getEncoder();
+
+    private final Path target;
+    private final Path temporary;
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    // Salida del codificador Base64, reutilizada entre bloques
+    private byte[] encoded = new byte[0];
+    private boolean completed;
+
+    SnapshotWriter(Path target) throws IOException {
+        this.target = target;
+        this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    SnapshotWriter append(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensure(bytes.length);
+        buffer.put(bytes);
+        return this;
+    }
+
+    SnapshotWriter append(char c) throws IOException {
+        ensure(1);
+        buffer.put((byte) c);
+        return this;
+    }
+
+    SnapshotWriter append(long value) throws IOException {
+        return append(Long.toString(value));
+    }
+
+    /**
+     * Agrega {@code count} bytes de {@code source} en Base64 estándar, con relleno. Solo copia la
+     * entrada cuando el bloque no está lleno, que en un archivo pasa a lo sumo en el último.
+     */
+    SnapshotWriter appendBase64(byte[] source, int count) throws IOException {
+        byte[] input = count == source.length ? source : Arrays.copyOf(source, count);
+        int length = (count + 2) / 3 * 4;
+        if (encoded.length < length) {
+            encoded = new byte[length];
+        }
+        BASE64.encode(input, encoded);
+        ensure(length);
+        buffer.put(encoded, 0, length);
+        return this;
+    }
+
+    SnapshotWriter line(String text) throws IOException {
+        return append(text).newLine();
+    }
+
+    SnapshotWriter newLine() throws IOException {
+        return append('\n');
+    }
+
+    /**
+     * Marca el snapshot como completo: al cerrar se fuerza al disco y reemplaza al destino.
+     */
+    void commit() {
+        completed = true;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        flush();
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(bytes);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (completed) {
+                flush();
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+        if (!completed) {
+            Files.deleteIfExists(temporary);
+            return;
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
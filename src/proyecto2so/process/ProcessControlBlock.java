@@ -9,9 +9,12 @@ public class ProcessControlBlock {
     private final OperationType operation;
     private final String targetPath;
     private final String owner;
-    private ProcessState state = ProcessState.NEW;
+    // Volátil: en el modo de hilos virtuales el proceso lo consulta sin el candado del motor
+    private volatile ProcessState state = ProcessState.NEW;
     private int requestedBlocks;
     private String payload = "";
+    private String result = "";
+    private volatile Thread thread;
 
     public ProcessControlBlock(int pid, OperationType operation, String targetPath, String owner) {
         this.pid = pid;
@@ -59,4 +62,27 @@ public class ProcessControlBlock {
     public void setPayload(String payload) {
         this.payload = payload;
     }
+
+    /**
+     * Resumen de lo que produjo la operación (por ejemplo, el contenido leído).
+     */
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result == null ? "" : result;
+    }
+
+    /**
+     * Hilo que ejecuta el proceso en el modo de hilos virtuales, o null. El motor de E/S lo
+     * despierta cuando su solicitud termina.
+     */
+    public Thread getThread() {
+        return thread;
+    }
+
+    public void setThread(Thread thread) {
+        this.thread = thread;
+    }
 }
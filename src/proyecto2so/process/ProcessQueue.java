@@ -1,74 +1,205 @@
 package proyecto2so.process;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
 import proyecto2so.core.SystemConfig;
 
 /**
- * Cola fija para PCBs sin colecciones de la librería estándar.
+ * Tabla de PCBs indexada por pid, sin colecciones de la librería estándar. Se reparte en
+ * franjas por pid, cada una con su propio candado y una tabla hash de direccionamiento abierto,
+ * así encolar, buscar y retirar un proceso cuestan O(1) y los hilos productores y los de disco
+ * solo compiten cuando tocan la misma franja. Un contador atómico respeta la capacidad total.
  */
 public class ProcessQueue {
 
-    private final ProcessControlBlock[] buffer = new ProcessControlBlock[SystemConfig.MAX_PROCESSES];
-    private int size;
+    private static final int STRIPE_BITS = 4;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final Comparator<ProcessControlBlock> BY_PID = new Comparator<ProcessControlBlock>() {
+        @Override
+        public int compare(ProcessControlBlock a, ProcessControlBlock b) {
+            return Integer.compare(a.getPid(), b.getPid());
+        }
+    };
+
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public ProcessQueue() {
+        this(SystemConfig.DEFAULT_MAX_PROCESSES);
+    }
 
+    public ProcessQueue(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        int perStripe = (this.capacity + STRIPES - 1) / STRIPES;
+        int slots = 8;
+        while (slots < perStripe * 2) {
+            slots <<= 1;
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(slots);
+        }
+    }
+
+    /**
+     * Agrega el PCB; si ya había uno con el mismo pid lo reemplaza.
+     *
+     * @return false si la tabla está llena
+     */
     public boolean enqueue(ProcessControlBlock pcb) {
-        if (size == buffer.length) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
             return false;
         }
-        buffer[size++] = pcb;
+        if (!stripeFor(pcb.getPid()).put(pcb)) {
+            size.decrementAndGet();
+        }
         return true;
     }
 
-    public ProcessControlBlock dequeue() {
-        return removeAt(0);
-    }
-
     public boolean removeByPid(int pid) {
-        for (int i = 0; i < size; i++) {
-            if (buffer[i] != null && buffer[i].getPid() == pid) {
-                removeAt(i);
-                return true;
-            }
+        if (!stripeFor(pid).remove(pid)) {
+            return false;
         }
-        return false;
+        size.decrementAndGet();
+        return true;
     }
 
-    private ProcessControlBlock removeAt(int index) {
-        if (index < 0 || index >= size) {
-            return null;
-        }
-        ProcessControlBlock removed = buffer[index];
-        for (int i = index; i < size - 1; i++) {
-            buffer[i] = buffer[i + 1];
-        }
-        buffer[--size] = null;
-        return removed;
+    public ProcessControlBlock findByPid(int pid) {
+        return stripeFor(pid).get(pid);
     }
 
     public int size() {
-        return size;
+        return size.get();
     }
 
-    public ProcessControlBlock get(int index) {
-        if (index < 0 || index >= size) {
-            return null;
+    /**
+     * Copia de los PCBs ordenada por pid, que es el orden de creación. No es atómica respecto de
+     * los hilos que encolan o retiran mientras tanto.
+     */
+    public ProcessControlBlock[] toArray() {
+        ProcessControlBlock[] all = new ProcessControlBlock[Math.max(0, size.get())];
+        int count = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            synchronized (stripes[i]) {
+                Stripe stripe = stripes[i];
+                for (int slot = 0; slot < stripe.values.length; slot++) {
+                    if (stripe.values[slot] == null) {
+                        continue;
+                    }
+                    if (count == all.length) {
+                        all = Arrays.copyOf(all, Math.max(8, count * 2));
+                    }
+                    all[count++] = stripe.values[slot];
+                }
+            }
+        }
+        if (count < all.length) {
+            all = Arrays.copyOf(all, count);
         }
-        return buffer[index];
+        Arrays.sort(all, BY_PID);
+        return all;
     }
 
     public void clear() {
-        for (int i = 0; i < buffer.length; i++) {
-            buffer[i] = null;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i].clear();
         }
-        size = 0;
+        size.set(0);
     }
 
-    public ProcessControlBlock findByPid(int pid) {
-        for (int i = 0; i < size; i++) {
-            ProcessControlBlock pcb = buffer[i];
-            if (pcb != null && pcb.getPid() == pid) {
-                return pcb;
+    private Stripe stripeFor(int pid) {
+        return stripes[pid & (STRIPES - 1)];
+    }
+
+    /**
+     * Tabla hash de una franja con sondeo lineal; al borrar recorre las entradas siguientes
+     * hacia el hueco en vez de dejar marcas de borrado.
+     */
+    private static final class Stripe {
+
+        private int[] keys;
+        private ProcessControlBlock[] values;
+        private int count;
+
+        Stripe(int slots) {
+            keys = new int[slots];
+            values = new ProcessControlBlock[slots];
+        }
+
+        synchronized boolean put(ProcessControlBlock pcb) {
+            if ((count + 1) * 2 > values.length) {
+                grow();
+            }
+            int slot = find(pcb.getPid());
+            boolean added = values[slot] == null;
+            keys[slot] = pcb.getPid();
+            values[slot] = pcb;
+            if (added) {
+                count++;
+            }
+            return added;
+        }
+
+        synchronized ProcessControlBlock get(int pid) {
+            return values[find(pid)];
+        }
+
+        synchronized boolean remove(int pid) {
+            int hole = find(pid);
+            if (values[hole] == null) {
+                return false;
+            }
+            int mask = values.length - 1;
+            for (int i = (hole + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+                int home = home(keys[i]);
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    keys[hole] = keys[i];
+                    values[hole] = values[i];
+                    hole = i;
+                }
+            }
+            values[hole] = null;
+            count--;
+            return true;
+        }
+
+        synchronized void clear() {
+            Arrays.fill(values, null);
+            count = 0;
+        }
+
+        /**
+         * Casilla del pid, o la casilla vacía donde iría.
+         */
+        private int find(int pid) {
+            int mask = values.length - 1;
+            int slot = home(pid);
+            while (values[slot] != null && keys[slot] != pid) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private int home(int pid) {
+            // Los pids de una franja avanzan de STRIPES en STRIPES; se mezclan para repartirlos
+            int h = (pid >>> STRIPE_BITS) * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & (values.length - 1);
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            ProcessControlBlock[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new ProcessControlBlock[oldValues.length * 2];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = find(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
             }
         }
-        return null;
     }
 }
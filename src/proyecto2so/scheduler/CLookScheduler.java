@@ -0,0 +1,19 @@
+package proyecto2so.scheduler;
+
+/**
+ * C-LOOK: sube atendiendo solicitudes y, tras la más alta, salta directamente a la más baja
+ * pendiente en lugar de recorrer el disco hasta los extremos.
+ */
+public class CLookScheduler implements DiskScheduler {
+
+    @Override
+    public DiskRequest selectNext(int currentHead, DiskRequestQueue queue) {
+        DiskRequest above = queue.ceiling(currentHead);
+        return above != null ? above : queue.lowest();
+    }
+
+    @Override
+    public String getName() {
+        return "C-LOOK";
+    }
+}
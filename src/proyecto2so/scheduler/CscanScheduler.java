@@ -3,32 +3,38 @@ package proyecto2so.scheduler;
 import proyecto2so.core.SystemConfig;
 
 /**
- * C-SCAN: mueve el cabezal en una sola dirección y reinicia en el bloque 0.
+ * C-SCAN: mueve el cabezal en una sola dirección; al llegar al final del disco regresa al
+ * bloque 0 sin atender nada y sigue subiendo. El regreso se cuenta en {@link #travelTo}.
  */
 public class CscanScheduler implements DiskScheduler {
 
+    private final int diskBlocks;
+
+    public CscanScheduler() {
+        this(SystemConfig.DEFAULT_MAX_BLOCKS);
+    }
+
+    public CscanScheduler(int diskBlocks) {
+        this.diskBlocks = diskBlocks;
+    }
+
+    /**
+     * Primero la solicitud más cercana por arriba; si no hay, vuelve al bloque más bajo pendiente.
+     */
     @Override
-    public int selectNext(int currentHead, DiskRequestQueue queue) {
-        if (queue.size() == 0) {
-            return -1;
-        }
-        int bestIndex = -1;
-        int bestDistance = Integer.MAX_VALUE;
-        for (int i = 0; i < queue.size(); i++) {
-            DiskRequest req = queue.get(i);
-            int target = req.getTargetBlock();
-            int distance;
-            if (target >= currentHead) {
-                distance = target - currentHead;
-            } else {
-                distance = (SystemConfig.MAX_BLOCKS - currentHead) + target;
-            }
-            if (distance < bestDistance) {
-                bestDistance = distance;
-                bestIndex = i;
-            }
+    public DiskRequest selectNext(int currentHead, DiskRequestQueue queue) {
+        DiskRequest above = queue.ceiling(currentHead);
+        return above != null ? above : queue.lowest();
+    }
+
+    @Override
+    public int travelTo(int currentHead, DiskRequest next) {
+        int target = next.getTargetBlock();
+        if (target >= currentHead) {
+            return target - currentHead;
         }
-        return bestIndex;
+        int last = diskBlocks - 1;
+        return (last - currentHead) + last + target;
     }
 
     @Override
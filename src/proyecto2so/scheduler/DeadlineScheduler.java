@@ -0,0 +1,61 @@
+package proyecto2so.scheduler;
+
+/**
+ * Deadline: en condiciones normales sube en un solo sentido como C-LOOK, pero cada solicitud
+ * vence {@code expiry} microsegundos simulados después de encolarse. Si la más antigua ya venció
+ * el cabezal salta a ella y desde ahí atiende un lote de {@code batch} solicitudes en orden de
+ * elevador antes de volver a mirar los vencimientos, como el planificador deadline de Linux. Así
+ * la espera máxima queda acotada sin degenerar en FIFO cuando la cola está saturada y todo vence.
+ */
+public class DeadlineScheduler implements DiskScheduler {
+
+    // Plazo de lectura del planificador deadline de Linux y su tamaño de lote
+    public static final long DEFAULT_EXPIRY_MICROS = 500_000L;
+    public static final int DEFAULT_BATCH = 16;
+
+    private final long expiry;
+    private final int batch;
+    private long now;
+    private int batchRemaining;
+    private int expiredServed;
+
+    public DeadlineScheduler(long expiryMicros, int batch) {
+        this.expiry = Math.max(1, expiryMicros);
+        this.batch = Math.max(1, batch);
+    }
+
+    @Override
+    public void setNow(long now) {
+        this.now = now;
+    }
+
+    @Override
+    public DiskRequest selectNext(int currentHead, DiskRequestQueue queue) {
+        DiskRequest oldest = queue.oldest();
+        if (oldest == null) {
+            return null;
+        }
+        if (batchRemaining > 0) {
+            batchRemaining--;
+        } else if (oldest.getEnqueueTime() >= 0 && now - oldest.getEnqueueTime() > expiry) {
+            // La más antigua es la de vencimiento más próximo porque todas tienen el mismo plazo
+            expiredServed++;
+            batchRemaining = batch - 1;
+            return oldest;
+        }
+        DiskRequest above = queue.ceiling(currentHead);
+        return above != null ? above : queue.lowest();
+    }
+
+    /**
+     * Solicitudes atendidas fuera de orden por haber vencido.
+     */
+    public int getExpiredServed() {
+        return expiredServed;
+    }
+
+    @Override
+    public String getName() {
+        return "DEADLINE";
+    }
+}
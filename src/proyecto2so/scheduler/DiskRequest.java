@@ -1,18 +1,104 @@
 package proyecto2so.scheduler;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import proyecto2so.process.OperationType;
 import proyecto2so.process.ProcessControlBlock;
 
 /**
- * Agrupa el PCB con el bloque objetivo que debe atender el disco.
+ * Agrupa el PCB con los bloques que debe atender el disco. Los enlaces internos los usa
+ * {@link DiskRequestQueue} para ordenar la solicitud por llegada y por bloque sin nodos extra.
+ * <p>
+ * Una operación que toca varios bloques se atiende por tramos de bloques consecutivos en orden
+ * ascendente: {@link #getTargetBlock()} y {@link #getBlockCount()} describen el tramo actual, y
+ * tras atenderlo la solicitud vuelve a la cola con el siguiente hasta cubrir todos.
+ * <p>
+ * Cuando la cola fusiona solicitudes, una de ellas queda encolada y cubre el tramo de bloques
+ * de todas; las demás viajan con ella (ver {@link #getMerged()}) y se completan en la misma
+ * visita del disco.
+ * <p>
+ * Una operación repartida entre varios discos se parte en una solicitud por disco: la que lleva
+ * el PCB es la principal y las demás son sus partes (ver {@link #addPart}). La operación termina
+ * cuando termina la última de ellas, sea cual sea su disco.
  */
 public class DiskRequest {
 
     private final ProcessControlBlock pcb;
-    private final int targetBlock;
+    private int targetBlock;
+    private int blockCount = 1;
+    // Bloques de la operación ordenados y sin repetir, o null si es un solo tramo
+    private final int[] blocks;
+    private int runStart;
+
+    // Orden de llegada (desempata solicitudes al mismo bloque) y prioridad del treap
+    long sequence = -1;
+    int priority;
+    // Número de llegada de la última solicitud que se le fusionó, o su propia llegada
+    long latestArrival;
+    // Encolada pero fuera del lote activo (planificadores por lotes)
+    boolean pending;
+    DiskRequest left;
+    DiskRequest right;
+    DiskRequest previousArrival;
+    DiskRequest nextArrival;
+    // Solicitudes fusionadas que viajan con esta, y la que lleva a esta si fue fusionada
+    DiskRequest mergedNext;
+    DiskRequest mergedTail;
+    int mergedCount;
+    DiskRequest carrier;
+
+    // Tiempos simulados en microsegundos; -1 mientras no ocurren
+    private long enqueueTime = -1;
+    private long startTime = -1;
+    private long completionTime = -1;
+    private int headTravel;
+    private int servedBlock = -1;
+    private boolean finished;
+
+    // Principal de la que esta es parte; en la principal, partes sin terminar (ella incluida)
+    private DiskRequest whole;
+    private AtomicInteger pendingParts;
+    private AtomicLong slowestPart;
+    private long groupLatency = -1;
+    private boolean closesGroup;
 
     public DiskRequest(ProcessControlBlock pcb, int targetBlock) {
+        this(pcb, targetBlock, 1);
+    }
+
+    /**
+     * Solicitud de {@code blockCount} bloques consecutivos desde {@code targetBlock}.
+     */
+    public DiskRequest(ProcessControlBlock pcb, int targetBlock, int blockCount) {
+        if (blockCount <= 0) {
+            throw new IllegalArgumentException("La solicitud debe cubrir al menos un bloque: " + blockCount);
+        }
         this.pcb = pcb;
         this.targetBlock = targetBlock;
+        this.blockCount = blockCount;
+        this.blocks = null;
+    }
+
+    /**
+     * Solicitud que toca los bloques dados en cualquier orden (por ejemplo, la cadena de un
+     * archivo); se ordenan y se parten en tramos consecutivos.
+     */
+    public DiskRequest(ProcessControlBlock pcb, int[] blocks) {
+        if (blocks == null || blocks.length == 0) {
+            throw new IllegalArgumentException("La solicitud debe cubrir al menos un bloque");
+        }
+        int[] sorted = blocks.clone();
+        Arrays.sort(sorted);
+        int distinct = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        this.pcb = pcb;
+        this.blocks = distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+        loadRun();
     }
 
     public ProcessControlBlock getPcb() {
@@ -22,4 +108,234 @@ public class DiskRequest {
     public int getTargetBlock() {
         return targetBlock;
     }
+
+    /**
+     * Bloques consecutivos desde {@link #getTargetBlock()} que cubre la visita al disco.
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Último bloque del tramo actual.
+     */
+    public int getLastBlock() {
+        return targetBlock + blockCount - 1;
+    }
+
+    /**
+     * Bloques de toda la operación, sumando todos sus tramos.
+     */
+    public int getBlockTotal() {
+        return blocks == null ? blockCount : blocks.length;
+    }
+
+    /**
+     * Bloque {@code index} de la operación en orden ascendente, con
+     * {@code 0 <= index < getBlockTotal()}.
+     */
+    public int getBlock(int index) {
+        return blocks == null ? targetBlock + index : blocks[index];
+    }
+
+    /**
+     * Bloques de la operación cubiertos por tramos ya atendidos; el tramo actual empieza en
+     * {@code getBlock(getServedBlocks())}.
+     */
+    public int getServedBlocks() {
+        return runStart;
+    }
+
+    /**
+     * true si quedan tramos después del actual.
+     */
+    public boolean hasPendingRuns() {
+        return blocks != null && runStart + blockCount < blocks.length;
+    }
+
+    /**
+     * Bloque donde quedó el cabezal tras la última visita del disco, o -1 si no se ha atendido.
+     */
+    public int getServedBlock() {
+        return servedBlock;
+    }
+
+    /**
+     * true cuando ya se atendió su último tramo.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Siguiente solicitud fusionada que se completa junto con esta, o null.
+     */
+    public DiskRequest getMerged() {
+        return mergedNext;
+    }
+
+    /**
+     * true si viaja dentro de otra solicitud en vez de estar encolada por sí misma.
+     */
+    public boolean isMerged() {
+        return carrier != null;
+    }
+
+    /**
+     * Suma {@code part}, atendida en otro disco, a esta operación. Se llama antes de encolar
+     * cualquiera de las dos.
+     */
+    public void addPart(DiskRequest part) {
+        if (pendingParts == null) {
+            pendingParts = new AtomicInteger(1);
+            slowestPart = new AtomicLong(-1);
+        }
+        pendingParts.incrementAndGet();
+        part.whole = this;
+    }
+
+    /**
+     * Deshace {@link #addPart} cuando la operación no se pudo encolar y se reintentará.
+     */
+    public void clearParts() {
+        pendingParts = null;
+        slowestPart = null;
+    }
+
+    /**
+     * Solicitud principal del grupo al que pertenece (ella misma si es la principal), o null si
+     * no está repartida.
+     */
+    public DiskRequest getGroup() {
+        if (whole != null) {
+            return whole;
+        }
+        return pendingParts == null ? null : this;
+    }
+
+    /**
+     * true si al terminar esta solicitud terminó la última parte de su grupo.
+     */
+    public boolean closesGroup() {
+        return closesGroup;
+    }
+
+    /**
+     * Da por terminada esta parte del grupo y guarda su latencia si es la más lenta.
+     *
+     * @return true si era la última parte pendiente
+     */
+    boolean finishPart() {
+        DiskRequest group = getGroup();
+        long latency = getLatency();
+        long seen;
+        do {
+            seen = group.slowestPart.get();
+        } while (latency > seen && !group.slowestPart.compareAndSet(seen, latency));
+        closesGroup = group.pendingParts.decrementAndGet() == 0;
+        if (closesGroup) {
+            group.groupLatency = group.slowestPart.get();
+        }
+        return closesGroup;
+    }
+
+    /**
+     * Las lecturas se pueden unir a cualquier otra lectura que las cubra; las solicitudes sin
+     * PCB son copias de escritura de un espejo.
+     */
+    boolean isRead() {
+        return pcb != null && pcb.getOperation() == OperationType.READ;
+    }
+
+    public long getEnqueueTime() {
+        return enqueueTime;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getCompletionTime() {
+        return completionTime;
+    }
+
+    /**
+     * Bloques que recorrió el cabezal para atenderla.
+     */
+    public int getHeadTravel() {
+        return headTravel;
+    }
+
+    /**
+     * Tiempo desde que se encoló hasta que terminó, o -1 si no se ha atendido. En una operación
+     * repartida, la principal da la de su parte más lenta una vez terminadas todas.
+     */
+    public long getLatency() {
+        if (groupLatency >= 0) {
+            return groupLatency;
+        }
+        return completionTime < 0 ? -1 : completionTime - enqueueTime;
+    }
+
+    void markEnqueued(long time) {
+        this.enqueueTime = time;
+    }
+
+    /**
+     * Sella la visita al tramo actual. Con varios tramos conserva el inicio del primero y suma el
+     * recorrido de todos.
+     */
+    void markServed(long start, long completion, int travel) {
+        if (startTime < 0) {
+            startTime = start;
+        }
+        completionTime = completion;
+        headTravel += travel;
+        servedBlock = getLastBlock();
+        finished = !hasPendingRuns();
+    }
+
+    /**
+     * Pasa al siguiente tramo de la operación.
+     *
+     * @return false si no quedaban tramos
+     */
+    boolean nextRun() {
+        if (!hasPendingRuns()) {
+            return false;
+        }
+        runStart += blockCount;
+        loadRun();
+        return true;
+    }
+
+    private void loadRun() {
+        int end = runStart + 1;
+        while (end < blocks.length && blocks[end] == blocks[end - 1] + 1) {
+            end++;
+        }
+        targetBlock = blocks[runStart];
+        blockCount = end - runStart;
+    }
+
+    boolean isQueued() {
+        return sequence >= 0;
+    }
+
+    /**
+     * Amplía el tramo a [{@code first}, {@code first + count}) y suma {@code rider} a las que
+     * viajan con esta.
+     */
+    void absorb(DiskRequest rider, int first, int count) {
+        targetBlock = first;
+        blockCount = count;
+        rider.carrier = this;
+        if (mergedTail == null) {
+            mergedNext = rider;
+        } else {
+            mergedTail.mergedNext = rider;
+        }
+        mergedTail = rider;
+        mergedCount++;
+    }
 }
@@ -3,48 +3,509 @@ package proyecto2so.scheduler;
 import proyecto2so.core.SystemConfig;
 
 /**
- * Cola fija que mantiene las solicitudes pendientes para el planificador de disco.
+ * Cola de solicitudes pendientes para el planificador de disco. Mantiene dos órdenes sobre los
+ * mismos objetos: una lista por llegada (FIFO y recorrido por índice) y un treap por bloque
+ * objetivo con desempate por llegada, que resuelve las búsquedas de techo y piso en O(log n).
+ * <p>
+ * En modo por lotes las solicitudes nuevas quedan pendientes fuera del treap hasta que el
+ * planificador las promueve; como se promueven en orden de llegada, las pendientes son siempre
+ * un sufijo de la lista por llegada.
+ * <p>
+ * Con la fusión activa, una solicitud nueva se une a una encolada en vez de ocupar un lugar,
+ * como el ascensor de un núcleo real: si es contigua a su tramo lo alarga por detrás o por
+ * delante, y si es una lectura ya cubierta por otra lectura solo espera su resultado. La
+ * solicitud encolada se atiende en una sola visita y completa a todas las que lleva. En modo
+ * por lotes no se fusiona, para no colar solicitudes nuevas en el lote activo, ni con una
+ * política por orden de llegada, que dejaría de serlo. Una solicitud de varios tramos solo se
+ * fusiona al llegar a su último tramo.
+ * <p>
+ * Fusionar adelanta la solicitud nueva hasta el lugar de la encolada, así que no se hace si
+ * entre ambas llegó otra que toca los mismos bloques y alguna de las dos escribe: una lectura
+ * no debe ver datos anteriores a una escritura o un borrado pedidos antes que ella. Una
+ * solicitud fusionada cuenta como llegada nueva de la que la lleva, aunque esta esté antes en
+ * la lista por llegada.
  */
 public class DiskRequestQueue {
 
-    private final DiskRequest[] buffer = new DiskRequest[SystemConfig.MAX_PROCESSES];
+    // Límites de una solicitud fusionada, como el tamaño máximo de una petición al dispositivo
+    public static final int MAX_MERGED_BLOCKS = 64;
+    public static final int MAX_MERGED_REQUESTS = 64;
+
+    private final int capacity;
+    private DiskRequest root;
+    private DiskRequest oldest;
+    private DiskRequest newest;
     private int size;
+    private long nextSequence;
+    private boolean batching;
+    private boolean arrivalOrdered;
+    // Encoladas que no son lecturas y número de llegada de la más nueva que se encoló o fusionó
+    private int nonReads;
+    private long newestNonRead = -1;
+    // Encoladas que recibieron una fusión después de llegar (todas y las que no son lecturas)
+    private int refreshed;
+    private int refreshedNonReads;
+    private DiskRequest firstPending;
+    private int pendingCount;
+    private boolean merging;
+    private long merges;
+
+    // Último acceso por índice, para que recorrer get(0..size-1) sea lineal
+    private DiskRequest cursor;
+    private int cursorIndex;
+
+    public DiskRequestQueue() {
+        this(SystemConfig.DEFAULT_MAX_PROCESSES);
+    }
+
+    public DiskRequestQueue(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
 
     public boolean enqueue(DiskRequest request) {
-        if (size == buffer.length) {
+        if (request == null || request.isQueued() || request.isMerged()) {
+            return false;
+        }
+        if (merging && !batching && !arrivalOrdered && tryMerge(request)) {
+            stampArrival(request.carrier, request);
+            merges++;
+            return true;
+        }
+        if (size == capacity) {
             return false;
         }
-        buffer[size++] = request;
+        request.sequence = nextSequence++;
+        request.latestArrival = request.sequence;
+        request.priority = mix(request.sequence);
+        request.left = null;
+        request.right = null;
+        request.previousArrival = newest;
+        request.nextArrival = null;
+        if (newest != null) {
+            newest.nextArrival = request;
+        } else {
+            oldest = request;
+        }
+        newest = request;
+        if (batching) {
+            request.pending = true;
+            if (firstPending == null) {
+                firstPending = request;
+            }
+            pendingCount++;
+        } else {
+            root = insert(root, request);
+        }
+        size++;
+        if (!request.isRead()) {
+            nonReads++;
+            newestNonRead = request.sequence;
+        }
+        cursor = null;
         return true;
     }
 
-    public DiskRequest dequeueAt(int index) {
-        if (index < 0 || index >= size) {
-            return null;
+    /**
+     * Une la solicitud a una encolada si la cubre o es contigua a ella. Busca en O(log n) la que
+     * empieza a la izquierda (coalescencia o fusión por detrás) y la que empieza justo donde
+     * termina la nueva (fusión por delante).
+     */
+    private boolean tryMerge(DiskRequest request) {
+        if (request.hasPendingRuns()) {
+            return false;
+        }
+        int first = request.getTargetBlock();
+        int end = first + request.getBlockCount();
+        boolean read = request.isRead();
+        DiskRequest before = floor(first);
+        if (before != null && read && before.isRead() && canAbsorb(before, 0)
+                && before.getTargetBlock() + before.getBlockCount() >= end && canOvertake(before, first, end, read)) {
+            before.absorb(request, before.getTargetBlock(), before.getBlockCount());
+            return true;
+        }
+        DiskRequest back = first > 0 ? floor(first - 1) : null;
+        if (back != null && back.isRead() == read && canAbsorb(back, request.getBlockCount())
+                && back.getTargetBlock() + back.getBlockCount() == first && canOvertake(back, first, end, read)) {
+            back.absorb(request, back.getTargetBlock(), back.getBlockCount() + request.getBlockCount());
+            return true;
+        }
+        DiskRequest front = ceiling(end);
+        if (front != null && front.isRead() == read && canAbsorb(front, request.getBlockCount())
+                && front.getTargetBlock() == end && canOvertake(front, first, end, read)) {
+            // Cambia el bloque inicial, así que se reubica en el treap; conserva su llegada
+            root = remove(root, front);
+            front.left = null;
+            front.right = null;
+            front.absorb(request, first, front.getBlockCount() + request.getBlockCount());
+            root = insert(root, front);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * La solicitud fusionada cuenta como una llegada nueva de {@code carrier}: una encolada antes
+     * puede así llevar una escritura pedida después de otras solicitudes.
+     */
+    private void stampArrival(DiskRequest carrier, DiskRequest rider) {
+        if (carrier.latestArrival == carrier.sequence) {
+            refreshed++;
+            if (!carrier.isRead()) {
+                refreshedNonReads++;
+            }
+        }
+        carrier.latestArrival = nextSequence++;
+        if (!rider.isRead()) {
+            newestNonRead = carrier.latestArrival;
+        }
+    }
+
+    /**
+     * true si la solicitud nueva, con bloques [{@code first}, {@code end}), puede atenderse en
+     * el lugar de {@code carrier}: ninguna solicitud llegada o fusionada después de él toca esos
+     * bloques con una escritura, ni con nada si la nueva escribe. Eso incluye las llegadas
+     * posteriores y las anteriores a las que después se les fusionó algo. Se revisan a lo sumo
+     * {@value #MAX_MERGED_REQUESTS} solicitudes; con más no se fusiona.
+     */
+    private boolean canOvertake(DiskRequest carrier, int first, int end, boolean read) {
+        if (read && (nonReads == 0 || newestNonRead < carrier.sequence)) {
+            // Ninguna escritura encolada ni fusionada llegó después del que la lleva
+            return true;
+        }
+        int scanned = 0;
+        if (read ? refreshedNonReads > 0 : refreshed > 0) {
+            for (DiskRequest earlier = oldest; earlier != carrier; earlier = earlier.nextArrival) {
+                if (++scanned > MAX_MERGED_REQUESTS) {
+                    return false;
+                }
+                if (earlier.latestArrival > carrier.sequence && conflicts(earlier, first, end, read)) {
+                    return false;
+                }
+            }
+        }
+        for (DiskRequest later = carrier.nextArrival; later != null; later = later.nextArrival) {
+            if (++scanned > MAX_MERGED_REQUESTS) {
+                return false;
+            }
+            if (conflicts(later, first, end, read)) {
+                return false;
+            }
         }
-        DiskRequest selected = buffer[index];
-        for (int i = index; i < size - 1; i++) {
-            buffer[i] = buffer[i + 1];
+        return true;
+    }
+
+    private static boolean conflicts(DiskRequest other, int first, int end, boolean read) {
+        return (!read || !other.isRead()) && other.getTargetBlock() < end && spanEnd(other) > first;
+    }
+
+    /**
+     * Fin exclusivo de los bloques que aún debe tocar la solicitud, incluidos sus tramos pendientes.
+     */
+    private static int spanEnd(DiskRequest request) {
+        if (request.hasPendingRuns()) {
+            return request.getBlock(request.getBlockTotal() - 1) + 1;
+        }
+        return request.getTargetBlock() + request.getBlockCount();
+    }
+
+    private static boolean canAbsorb(DiskRequest carrier, int extraBlocks) {
+        return !carrier.hasPendingRuns() && carrier.mergedCount < MAX_MERGED_REQUESTS && carrier.getBlockCount() + extraBlocks <= MAX_MERGED_BLOCKS;
+    }
+
+    /**
+     * Quita la solicitud de la cola en O(log n). Cada remoción cuenta como un servicio para medir
+     * la espera de las demás.
+     *
+     * @return false si no estaba encolada aquí
+     */
+    public boolean remove(DiskRequest request) {
+        if (request == null || !request.isQueued()) {
+            return false;
+        }
+        if (request.pending) {
+            if (firstPending == request) {
+                firstPending = request.nextArrival;
+            }
+            request.pending = false;
+            pendingCount--;
+        } else {
+            root = remove(root, request);
+        }
+        DiskRequest previous = request.previousArrival;
+        DiskRequest next = request.nextArrival;
+        if (previous != null) {
+            previous.nextArrival = next;
+        } else {
+            oldest = next;
+        }
+        if (next != null) {
+            next.previousArrival = previous;
+        } else {
+            newest = previous;
+        }
+        if (request.latestArrival != request.sequence) {
+            refreshed--;
+            if (!request.isRead()) {
+                refreshedNonReads--;
+            }
+        }
+        request.sequence = -1;
+        request.left = null;
+        request.right = null;
+        request.previousArrival = null;
+        request.nextArrival = null;
+        size--;
+        if (!request.isRead()) {
+            nonReads--;
+        }
+        cursor = null;
+        return true;
+    }
+
+    /**
+     * Activa o desactiva el modo por lotes; al desactivarlo todas las pendientes pasan al lote activo.
+     */
+    public void setBatching(boolean batching) {
+        this.batching = batching;
+        if (!batching) {
+            promotePending(pendingCount);
+        }
+    }
+
+    public boolean isBatching() {
+        return batching;
+    }
+
+    /**
+     * Indica que la política atiende por orden de llegada; mientras lo esté no se fusiona.
+     */
+    public void setArrivalOrdered(boolean arrivalOrdered) {
+        this.arrivalOrdered = arrivalOrdered;
+    }
+
+    public boolean isArrivalOrdered() {
+        return arrivalOrdered;
+    }
+
+    /**
+     * Activa la fusión de solicitudes contiguas y la coalescencia de lecturas repetidas. Solo
+     * afecta a las que se encolen después.
+     */
+    public void setMerging(boolean merging) {
+        this.merging = merging;
+    }
+
+    public boolean isMerging() {
+        return merging;
+    }
+
+    /**
+     * Solicitudes que se unieron a otra en vez de encolarse.
+     */
+    public long getMergeCount() {
+        return merges;
+    }
+
+    /**
+     * Pasa al lote activo hasta {@code max} solicitudes pendientes, las más antiguas primero.
+     *
+     * @return solicitudes promovidas
+     */
+    public int promotePending(int max) {
+        int promoted = 0;
+        while (firstPending != null && promoted < max) {
+            DiskRequest request = firstPending;
+            firstPending = request.nextArrival;
+            request.pending = false;
+            root = insert(root, request);
+            pendingCount--;
+            promoted++;
         }
-        buffer[--size] = null;
+        return promoted;
+    }
+
+    /**
+     * Solicitudes visibles para las búsquedas por bloque (todas, salvo en modo por lotes).
+     */
+    public int activeSize() {
+        return size - pendingCount;
+    }
+
+    public int pendingSize() {
+        return pendingCount;
+    }
+
+    public DiskRequest dequeueAt(int index) {
+        DiskRequest selected = get(index);
+        remove(selected);
         return selected;
     }
 
+    /**
+     * Solicitud en la posición {@code index} según el orden de llegada.
+     */
     public DiskRequest get(int index) {
         if (index < 0 || index >= size) {
             return null;
         }
-        return buffer[index];
+        DiskRequest node = oldest;
+        int position = 0;
+        if (cursor != null && cursorIndex <= index) {
+            node = cursor;
+            position = cursorIndex;
+        }
+        while (position < index) {
+            node = node.nextArrival;
+            position++;
+        }
+        cursor = node;
+        cursorIndex = index;
+        return node;
+    }
+
+    /**
+     * La solicitud más antigua, o null si la cola está vacía.
+     */
+    public DiskRequest oldest() {
+        return oldest;
+    }
+
+    /**
+     * La solicitud activa más antigua entre las de menor bloque objetivo mayor o igual a {@code block}.
+     */
+    public DiskRequest ceiling(int block) {
+        DiskRequest best = null;
+        DiskRequest node = root;
+        while (node != null) {
+            if (node.getTargetBlock() >= block) {
+                best = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * La solicitud activa más antigua entre las de mayor bloque objetivo menor o igual a {@code block}.
+     */
+    public DiskRequest floor(int block) {
+        DiskRequest best = null;
+        DiskRequest node = root;
+        while (node != null) {
+            if (node.getTargetBlock() <= block) {
+                best = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return best == null ? null : ceiling(best.getTargetBlock());
+    }
+
+    public DiskRequest lowest() {
+        return ceiling(Integer.MIN_VALUE);
+    }
+
+    public DiskRequest highest() {
+        return floor(Integer.MAX_VALUE);
     }
 
     public int size() {
         return size;
     }
 
+    public int capacity() {
+        return capacity;
+    }
+
     public void clear() {
-        for (int i = 0; i < buffer.length; i++) {
-            buffer[i] = null;
+        while (oldest != null) {
+            remove(oldest);
+        }
+        nextSequence = 0;
+        merges = 0;
+        newestNonRead = -1;
+    }
+
+    /**
+     * Compara por bloque objetivo y, a igual bloque, por orden de llegada.
+     */
+    static boolean precedes(DiskRequest a, DiskRequest b) {
+        if (a.getTargetBlock() != b.getTargetBlock()) {
+            return a.getTargetBlock() < b.getTargetBlock();
+        }
+        return a.sequence < b.sequence;
+    }
+
+    private static DiskRequest insert(DiskRequest node, DiskRequest request) {
+        if (node == null) {
+            return request;
+        }
+        if (precedes(request, node)) {
+            node.left = insert(node.left, request);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, request);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return node;
+    }
+
+    private static DiskRequest remove(DiskRequest node, DiskRequest request) {
+        if (node == null) {
+            return null;
         }
-        size = 0;
+        if (node == request) {
+            return merge(node.left, node.right);
+        }
+        if (precedes(request, node)) {
+            node.left = remove(node.left, request);
+        } else {
+            node.right = remove(node.right, request);
+        }
+        return node;
+    }
+
+    private static DiskRequest merge(DiskRequest a, DiskRequest b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        return b;
+    }
+
+    private static DiskRequest rotateRight(DiskRequest node) {
+        DiskRequest pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        return pivot;
+    }
+
+    private static DiskRequest rotateLeft(DiskRequest node) {
+        DiskRequest pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        return pivot;
+    }
+
+    // Prioridad pseudoaleatoria pero reproducible a partir del número de llegada
+    private static int mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31));
     }
 }
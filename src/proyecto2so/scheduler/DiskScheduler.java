@@ -8,9 +8,39 @@ public interface DiskScheduler {
     /**
      * @param currentHead current disk head position
      * @param queue queue containing pending requests
-     * @return index inside the queue of the next request to serve
+     * @return next request to serve (still queued), or null if the queue is empty
      */
-    int selectNext(int currentHead, DiskRequestQueue queue);
+    DiskRequest selectNext(int currentHead, DiskRequestQueue queue);
+
+    /**
+     * Blocks the head travels from {@code currentHead} to serve {@code next}, which must be the
+     * request just returned by {@link #selectNext}. Sweeping policies add the trip to the disk edge.
+     */
+    default int travelTo(int currentHead, DiskRequest next) {
+        return Math.abs(next.getTargetBlock() - currentHead);
+    }
+
+    /**
+     * Simulated clock (microseconds) right before each {@link #selectNext}; policies with
+     * deadlines compare it against {@link DiskRequest#getEnqueueTime()}.
+     */
+    default void setNow(long now) {
+    }
+
+    /**
+     * Whether the policy serves strictly in arrival order; the queue then never merges requests,
+     * since merging would let a newer request overtake older ones.
+     */
+    default boolean isArrivalOrdered() {
+        return false;
+    }
+
+    /**
+     * Whether the policy serves the queue in frozen batches (see {@link DiskRequestQueue#setBatching}).
+     */
+    default boolean isBatched() {
+        return false;
+    }
 
     String getName();
 }
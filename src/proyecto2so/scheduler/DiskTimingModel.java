@@ -0,0 +1,33 @@
+package proyecto2so.scheduler;
+
+/**
+ * Modelo de tiempos del disco simulado, en microsegundos. Permite comparar planificadores por
+ * latencia y rendimiento y no solo por el orden en que atienden.
+ */
+public interface DiskTimingModel {
+
+    /**
+     * Tiempo de búsqueda para mover el cabezal {@code distance} bloques (distancia mayor que 0).
+     */
+    long seekTime(int distance);
+
+    /**
+     * Tiempo de asentamiento del cabezal tras una búsqueda.
+     */
+    long settleTime();
+
+    /**
+     * Espera rotacional promedio antes de que el bloque pase bajo el cabezal.
+     */
+    long rotationalDelay();
+
+    long transferTime(int blocks);
+
+    /**
+     * Tiempo total de servicio: posicionamiento (si el cabezal se mueve), rotación y transferencia.
+     */
+    default long serviceTime(int distance, int blocks) {
+        long positioning = distance == 0 ? 0 : seekTime(distance) + settleTime();
+        return positioning + rotationalDelay() + transferTime(blocks);
+    }
+}
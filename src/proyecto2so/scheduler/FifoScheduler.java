@@ -6,11 +6,13 @@ package proyecto2so.scheduler;
 public class FifoScheduler implements DiskScheduler {
 
     @Override
-    public int selectNext(int currentHead, DiskRequestQueue queue) {
-        if (queue.size() == 0) {
-            return -1;
-        }
-        return 0;
+    public DiskRequest selectNext(int currentHead, DiskRequestQueue queue) {
+        return queue.oldest();
+    }
+
+    @Override
+    public boolean isArrivalOrdered() {
+        return true;
     }
 
     @Override
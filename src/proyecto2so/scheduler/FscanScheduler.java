@@ -0,0 +1,38 @@
+package proyecto2so.scheduler;
+
+/**
+ * FSCAN: atiende con SCAN todo lo que estaba en cola al iniciar el barrido; las solicitudes
+ * nuevas esperan en la segunda cola hasta el siguiente barrido.
+ */
+public class FscanScheduler implements DiskScheduler {
+
+    private final ScanScheduler sweep;
+
+    public FscanScheduler(int diskBlocks) {
+        this.sweep = new ScanScheduler(diskBlocks);
+    }
+
+    @Override
+    public DiskRequest selectNext(int currentHead, DiskRequestQueue queue) {
+        queue.setBatching(true);
+        if (queue.activeSize() == 0) {
+            queue.promotePending(queue.pendingSize());
+        }
+        return sweep.selectNext(currentHead, queue);
+    }
+
+    @Override
+    public int travelTo(int currentHead, DiskRequest next) {
+        return sweep.travelTo(currentHead, next);
+    }
+
+    @Override
+    public boolean isBatched() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "FSCAN";
+    }
+}
@@ -0,0 +1,59 @@
+package proyecto2so.scheduler;
+
+/**
+ * Disco mecánico: la búsqueda crece con la raíz cuadrada de la distancia entre el tiempo de pista
+ * a pista y el de recorrido completo, como en los modelos clásicos de aceleración del brazo.
+ */
+public class HddTimingModel implements DiskTimingModel {
+
+    private final int diskBlocks;
+    private final long trackToTrackSeek;
+    private final long fullStrokeSeek;
+    private final long settle;
+    private final long rotation;
+    private final long transferPerBlock;
+
+    /**
+     * Valores típicos de un disco de 7200 rpm con bloques de 4 KiB a unos 150 MB/s.
+     */
+    public HddTimingModel(int diskBlocks) {
+        this(diskBlocks, 500, 10_000, 100, 7200, 27);
+    }
+
+    /**
+     * @param rpm velocidad de giro; la espera rotacional promedio es media vuelta
+     */
+    public HddTimingModel(int diskBlocks, long trackToTrackSeek, long fullStrokeSeek, long settle, int rpm,
+            long transferPerBlock) {
+        this.diskBlocks = Math.max(2, diskBlocks);
+        this.trackToTrackSeek = trackToTrackSeek;
+        this.fullStrokeSeek = fullStrokeSeek;
+        this.settle = settle;
+        this.rotation = rpm <= 0 ? 0 : 30_000_000L / rpm;
+        this.transferPerBlock = transferPerBlock;
+    }
+
+    @Override
+    public long seekTime(int distance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        double fraction = Math.min(1.0, distance / (double) (diskBlocks - 1));
+        return trackToTrackSeek + Math.round((fullStrokeSeek - trackToTrackSeek) * Math.sqrt(fraction));
+    }
+
+    @Override
+    public long settleTime() {
+        return settle;
+    }
+
+    @Override
+    public long rotationalDelay() {
+        return rotation;
+    }
+
+    @Override
+    public long transferTime(int blocks) {
+        return transferPerBlock * Math.max(0, blocks);
+    }
+}
@@ -0,0 +1,128 @@
+package proyecto2so.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Acumula las solicitudes atendidas por un planificador: recorrido del cabezal, rendimiento y
+ * distribución de latencias (de encolado a finalización, en microsegundos).
+ */
+public class IoStats {
+
+    private final String name;
+    private long[] latencies = new long[64];
+    private int count;
+    private long latencySum;
+    private long totalTravel;
+    private long busyTime;
+    private long firstEnqueue = Long.MAX_VALUE;
+    private long lastCompletion;
+    private boolean sorted = true;
+
+    public IoStats(String name) {
+        this.name = name;
+    }
+
+    public void record(DiskRequest request) {
+        recordCompletion(request);
+        recordWork(request);
+    }
+
+    /**
+     * Cuenta la solicitud y su latencia sin sumar trabajo del disco, por ejemplo una operación
+     * repartida cuyas partes ya sumaron el suyo con {@link #recordWork}.
+     */
+    public void recordCompletion(DiskRequest request) {
+        long latency = request.getLatency();
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latency;
+        sorted = false;
+        latencySum += latency;
+        firstEnqueue = Math.min(firstEnqueue, request.getEnqueueTime());
+        lastCompletion = Math.max(lastCompletion, request.getCompletionTime());
+    }
+
+    /**
+     * Suma el recorrido y el tiempo ocupado del disco sin contar una solicitud más, por ejemplo
+     * una parte de una operación repartida entre varios discos.
+     */
+    public void recordWork(DiskRequest request) {
+        totalTravel += request.getHeadTravel();
+        busyTime += request.getCompletionTime() - request.getStartTime();
+        firstEnqueue = Math.min(firstEnqueue, request.getEnqueueTime());
+        lastCompletion = Math.max(lastCompletion, request.getCompletionTime());
+    }
+
+    /**
+     * Suma las solicitudes de {@code other}, por ejemplo las de cada disco de un volumen. Cada
+     * disco lleva su propio reloj desde cero, así que el rendimiento combinado refleja el
+     * trabajo en paralelo.
+     */
+    public void merge(IoStats other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        sorted = other.count == 0 && sorted;
+        latencySum += other.latencySum;
+        totalTravel += other.totalTravel;
+        busyTime += other.busyTime;
+        firstEnqueue = Math.min(firstEnqueue, other.firstEnqueue);
+        lastCompletion = Math.max(lastCompletion, other.lastCompletion);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotalTravel() {
+        return totalTravel;
+    }
+
+    public long getBusyTime() {
+        return busyTime;
+    }
+
+    public double getMeanLatency() {
+        return count == 0 ? 0 : latencySum / (double) count;
+    }
+
+    /**
+     * Latencia en el percentil {@code p} (0 a 100) por el método del rango más cercano.
+     */
+    public long getPercentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(latencies, 0, count);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * count);
+        return latencies[Math.max(0, Math.min(count - 1, rank - 1))];
+    }
+
+    /**
+     * Solicitudes por segundo entre la primera llegada y la última finalización.
+     */
+    public double getThroughput() {
+        long span = lastCompletion - firstEnqueue;
+        return count == 0 || span <= 0 ? 0 : count * 1_000_000.0 / span;
+    }
+
+    public void reset() {
+        count = 0;
+        latencySum = 0;
+        totalTravel = 0;
+        busyTime = 0;
+        firstEnqueue = Long.MAX_VALUE;
+        lastCompletion = 0;
+        sorted = true;
+    }
+}
@@ -0,0 +1,25 @@
+package proyecto2so.scheduler;
+
+/**
+ * LOOK: como el elevador, pero invierte el sentido en la última solicitud pendiente en vez de
+ * llegar hasta el extremo del disco.
+ */
+public class LookScheduler implements DiskScheduler {
+
+    private boolean movingUp = true;
+
+    @Override
+    public DiskRequest selectNext(int currentHead, DiskRequestQueue queue) {
+        DiskRequest candidate = movingUp ? queue.ceiling(currentHead) : queue.floor(currentHead);
+        if (candidate == null) {
+            movingUp = !movingUp;
+            candidate = movingUp ? queue.ceiling(currentHead) : queue.floor(currentHead);
+        }
+        return candidate;
+    }
+
+    @Override
+    public String getName() {
+        return "LOOK";
+    }
+}
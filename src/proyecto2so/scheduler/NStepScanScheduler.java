@@ -0,0 +1,43 @@
+package proyecto2so.scheduler;
+
+/**
+ * N-step-SCAN: congela lotes de a lo sumo N solicitudes (las más antiguas) y los atiende con SCAN.
+ * Lo que llega mientras tanto espera al lote siguiente, así que ninguna solicitud puede quedar
+ * postergada indefinidamente por otras más cercanas al cabezal.
+ */
+public class NStepScanScheduler implements DiskScheduler {
+
+    public static final int DEFAULT_BATCH_SIZE = 8;
+
+    private final int batchSize;
+    private final ScanScheduler sweep;
+
+    public NStepScanScheduler(int batchSize, int diskBlocks) {
+        this.batchSize = Math.max(1, batchSize);
+        this.sweep = new ScanScheduler(diskBlocks);
+    }
+
+    @Override
+    public DiskRequest selectNext(int currentHead, DiskRequestQueue queue) {
+        queue.setBatching(true);
+        if (queue.activeSize() == 0) {
+            queue.promotePending(batchSize);
+        }
+        return sweep.selectNext(currentHead, queue);
+    }
+
+    @Override
+    public int travelTo(int currentHead, DiskRequest next) {
+        return sweep.travelTo(currentHead, next);
+    }
+
+    @Override
+    public boolean isBatched() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "N-STEP-SCAN";
+    }
+}
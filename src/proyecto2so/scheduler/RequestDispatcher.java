@@ -0,0 +1,152 @@
+package proyecto2so.scheduler;
+
+/**
+ * Atiende la cola de E/S con el planificador elegido sobre un reloj simulado: cada servicio
+ * cuesta lo que indica el {@link DiskTimingModel} según el recorrido del cabezal y los bloques
+ * del tramo. Sella en cada solicitud sus tiempos de encolado, inicio y fin, y acumula
+ * estadísticas por planificador cuando termina su último tramo.
+ */
+public class RequestDispatcher {
+
+    private DiskScheduler scheduler;
+    private DiskTimingModel timing;
+    private long now;
+    private IoStats[] stats = new IoStats[4];
+    private int statsCount;
+
+    public RequestDispatcher(DiskScheduler scheduler, DiskTimingModel timing) {
+        this.scheduler = scheduler;
+        this.timing = timing;
+    }
+
+    /**
+     * Encola la solicitud con la hora actual del reloj simulado como llegada.
+     */
+    public boolean submit(DiskRequestQueue queue, DiskRequest request) {
+        return submit(queue, request, now);
+    }
+
+    public boolean submit(DiskRequestQueue queue, DiskRequest request, long arrivalTime) {
+        request.markEnqueued(arrivalTime);
+        return queue.enqueue(request);
+    }
+
+    /**
+     * Elige, quita de la cola y atiende el tramo actual de la siguiente solicitud a partir de
+     * {@code head}. Si le quedan tramos vuelve a la cola como una llegada nueva con el siguiente,
+     * de modo que el planificador la intercala con las demás; si no, termina junto con las
+     * solicitudes fusionadas con ella sin ocupar más tiempo del disco.
+     *
+     * @return la solicitud atendida (ver {@link DiskRequest#getServedBlock()} y
+     *         {@link DiskRequest#isFinished()}) o null
+     */
+    public DiskRequest dispatchNext(int head, DiskRequestQueue queue) {
+        scheduler.setNow(now);
+        DiskRequest request = scheduler.selectNext(head, queue);
+        if (request == null) {
+            return null;
+        }
+        int travel = scheduler.travelTo(head, request);
+        queue.remove(request);
+        if (request.getEnqueueTime() < 0) {
+            request.markEnqueued(now);
+        }
+        long start = Math.max(now, request.getEnqueueTime());
+        now = start + timing.serviceTime(travel, request.getBlockCount());
+        request.markServed(start, now, travel);
+        if (request.nextRun()) {
+            // Acaba de salir de la cola, así que siempre hay lugar para el siguiente tramo
+            queue.enqueue(request);
+            return request;
+        }
+        IoStats current = statsFor(scheduler.getName());
+        account(current, request);
+        for (DiskRequest rider = request.getMerged(); rider != null; rider = rider.getMerged()) {
+            // Solo cuenta su latencia: el tiempo de disco ya lo cargó la solicitud que la lleva
+            rider.markServed(now, now, 0);
+            account(current, rider);
+        }
+        return request;
+    }
+
+    /**
+     * Las partes de una operación repartida entre discos solo suman trabajo del disco; la
+     * operación se cuenta una vez, en el disco que termina su última parte.
+     */
+    private void account(IoStats current, DiskRequest request) {
+        DiskRequest group = request.getGroup();
+        if (group == null) {
+            current.record(request);
+            return;
+        }
+        current.recordWork(request);
+        if (request.finishPart()) {
+            current.recordCompletion(group);
+        }
+    }
+
+    /**
+     * Adelanta el reloj (por ejemplo, mientras el disco espera la siguiente llegada).
+     */
+    public void advanceTo(long time) {
+        now = Math.max(now, time);
+    }
+
+    public long getNow() {
+        return now;
+    }
+
+    public DiskScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(DiskScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public DiskTimingModel getTimingModel() {
+        return timing;
+    }
+
+    public void setTimingModel(DiskTimingModel timing) {
+        this.timing = timing;
+    }
+
+    /**
+     * Estadísticas del planificador actual.
+     */
+    public IoStats getStats() {
+        return statsFor(scheduler.getName());
+    }
+
+    /**
+     * Estadísticas acumuladas por un planificador, o null si aún no atendió nada.
+     */
+    public IoStats getStats(String schedulerName) {
+        for (int i = 0; i < statsCount; i++) {
+            if (stats[i].getName().equals(schedulerName)) {
+                return stats[i];
+            }
+        }
+        return null;
+    }
+
+    private IoStats statsFor(String schedulerName) {
+        IoStats existing = getStats(schedulerName);
+        if (existing != null) {
+            return existing;
+        }
+        if (statsCount == stats.length) {
+            IoStats[] grown = new IoStats[stats.length * 2];
+            System.arraycopy(stats, 0, grown, 0, statsCount);
+            stats = grown;
+        }
+        stats[statsCount] = new IoStats(schedulerName);
+        return stats[statsCount++];
+    }
+
+    public void reset() {
+        now = 0;
+        statsCount = 0;
+    }
+}
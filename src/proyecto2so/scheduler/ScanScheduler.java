@@ -3,49 +3,52 @@ package proyecto2so.scheduler;
 import proyecto2so.core.SystemConfig;
 
 /**
- * SCAN (tipo elevador): barre de un extremo a otro del disco.
+ * SCAN (tipo elevador): barre de un extremo a otro del disco. Atiende en el mismo orden que
+ * LOOK, pero antes de invertir el sentido el cabezal llega hasta el extremo, y ese tramo se
+ * cuenta en {@link #travelTo}.
  */
 public class ScanScheduler implements DiskScheduler {
 
+    private final int diskBlocks;
     private boolean movingUp = true;
+    private boolean reversed;
+
+    public ScanScheduler() {
+        this(SystemConfig.DEFAULT_MAX_BLOCKS);
+    }
+
+    public ScanScheduler(int diskBlocks) {
+        this.diskBlocks = diskBlocks;
+    }
 
     @Override
-    public int selectNext(int currentHead, DiskRequestQueue queue) {
-        if (queue.size() == 0) {
-            return -1;
+    public DiskRequest selectNext(int currentHead, DiskRequestQueue queue) {
+        reversed = false;
+        if (queue.activeSize() == 0) {
+            return null;
         }
-        int candidate = findInDirection(currentHead, queue, movingUp);
-        if (candidate == -1) {
+        DiskRequest candidate = findInDirection(currentHead, queue, movingUp);
+        if (candidate == null) {
             movingUp = !movingUp;
+            reversed = true;
             candidate = findInDirection(currentHead, queue, movingUp);
         }
-        if (candidate == -1) {
-            candidate = 0;
-        }
         return candidate;
     }
 
-    private int findInDirection(int currentHead, DiskRequestQueue queue, boolean upwards) {
-        int bestIndex = -1;
-        int bestDistance = Integer.MAX_VALUE;
-        for (int i = 0; i < queue.size(); i++) {
-            DiskRequest req = queue.get(i);
-            int target = req.getTargetBlock();
-            int delta = target - currentHead;
-            if (upwards && delta >= 0) {
-                if (delta < bestDistance) {
-                    bestDistance = delta;
-                    bestIndex = i;
-                }
-            } else if (!upwards && delta <= 0) {
-                int abs = Math.abs(delta);
-                if (abs < bestDistance) {
-                    bestDistance = abs;
-                    bestIndex = i;
-                }
-            }
+    private DiskRequest findInDirection(int currentHead, DiskRequestQueue queue, boolean upwards) {
+        return upwards ? queue.ceiling(currentHead) : queue.floor(currentHead);
+    }
+
+    @Override
+    public int travelTo(int currentHead, DiskRequest next) {
+        int target = next.getTargetBlock();
+        if (!reversed) {
+            return Math.abs(target - currentHead);
         }
-        return bestIndex;
+        // Ahora sube: antes bajó hasta el bloque 0. Ahora baja: antes subió hasta el último bloque
+        int last = diskBlocks - 1;
+        return movingUp ? currentHead + target : (last - currentHead) + (last - target);
     }
 
     @Override
@@ -5,18 +5,43 @@ package proyecto2so.scheduler;
  */
 public final class SchedulerFactory {
 
+    /**
+     * Nombres aceptados por {@link #create}, en el orden en que se muestran.
+     */
+    public static final String[] NAMES = {
+        "FIFO", "SSTF", "SCAN", "C-SCAN", "LOOK", "C-LOOK", "N-STEP-SCAN", "FSCAN", "DEADLINE"
+    };
+
     private SchedulerFactory() {
     }
 
-    public static DiskScheduler create(String name) {
+    /**
+     * @param diskBlocks cantidad de bloques del disco, necesaria para los algoritmos que barren hasta los extremos
+     */
+    public static DiskScheduler create(String name, int diskBlocks) {
         if ("SSTF".equalsIgnoreCase(name)) {
             return new SstfScheduler();
         }
         if ("SCAN".equalsIgnoreCase(name)) {
-            return new ScanScheduler();
+            return new ScanScheduler(diskBlocks);
         }
         if ("C-SCAN".equalsIgnoreCase(name) || "CSCAN".equalsIgnoreCase(name)) {
-            return new CscanScheduler();
+            return new CscanScheduler(diskBlocks);
+        }
+        if ("LOOK".equalsIgnoreCase(name)) {
+            return new LookScheduler();
+        }
+        if ("C-LOOK".equalsIgnoreCase(name) || "CLOOK".equalsIgnoreCase(name)) {
+            return new CLookScheduler();
+        }
+        if ("N-STEP-SCAN".equalsIgnoreCase(name)) {
+            return new NStepScanScheduler(NStepScanScheduler.DEFAULT_BATCH_SIZE, diskBlocks);
+        }
+        if ("FSCAN".equalsIgnoreCase(name)) {
+            return new FscanScheduler(diskBlocks);
+        }
+        if ("DEADLINE".equalsIgnoreCase(name)) {
+            return new DeadlineScheduler(DeadlineScheduler.DEFAULT_EXPIRY_MICROS, DeadlineScheduler.DEFAULT_BATCH);
         }
         return new FifoScheduler();
     }
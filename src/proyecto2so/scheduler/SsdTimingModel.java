@@ -0,0 +1,40 @@
+package proyecto2so.scheduler;
+
+/**
+ * Disco de estado sólido: latencia de acceso fija, sin búsqueda ni rotación. Sirve como línea
+ * base en la que el orden del planificador no cambia el costo.
+ */
+public class SsdTimingModel implements DiskTimingModel {
+
+    private final long accessLatency;
+    private final long transferPerBlock;
+
+    public SsdTimingModel() {
+        this(80, 8);
+    }
+
+    public SsdTimingModel(long accessLatency, long transferPerBlock) {
+        this.accessLatency = accessLatency;
+        this.transferPerBlock = transferPerBlock;
+    }
+
+    @Override
+    public long seekTime(int distance) {
+        return 0;
+    }
+
+    @Override
+    public long settleTime() {
+        return 0;
+    }
+
+    @Override
+    public long rotationalDelay() {
+        return accessLatency;
+    }
+
+    @Override
+    public long transferTime(int blocks) {
+        return transferPerBlock * Math.max(0, blocks);
+    }
+}
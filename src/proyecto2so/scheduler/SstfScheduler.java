@@ -1,26 +1,24 @@
 package proyecto2so.scheduler;
 
 /**
- * SSTF: selecciona la solicitud con menor movimiento del cabezal.
+ * SSTF: selecciona la solicitud con menor movimiento del cabezal. Solo compara la más cercana
+ * por arriba y por abajo; a igual distancia gana la más antigua.
  */
 public class SstfScheduler implements DiskScheduler {
 
     @Override
-    public int selectNext(int currentHead, DiskRequestQueue queue) {
-        if (queue.size() == 0) {
-            return -1;
+    public DiskRequest selectNext(int currentHead, DiskRequestQueue queue) {
+        DiskRequest above = queue.ceiling(currentHead);
+        DiskRequest below = queue.floor(currentHead);
+        if (above == null || below == null) {
+            return above != null ? above : below;
         }
-        int bestIndex = 0;
-        int bestDistance = Integer.MAX_VALUE;
-        for (int i = 0; i < queue.size(); i++) {
-            DiskRequest req = queue.get(i);
-            int distance = Math.abs(req.getTargetBlock() - currentHead);
-            if (distance < bestDistance) {
-                bestDistance = distance;
-                bestIndex = i;
-            }
+        int up = above.getTargetBlock() - currentHead;
+        int down = currentHead - below.getTargetBlock();
+        if (up != down) {
+            return up < down ? above : below;
         }
-        return bestIndex;
+        return above.sequence <= below.sequence ? above : below;
     }
 
     @Override
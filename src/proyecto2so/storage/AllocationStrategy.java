@@ -0,0 +1,11 @@
+package proyecto2so.storage;
+
+/**
+ * Estrategias de asignación de bloques admitidas por el asignador.
+ */
+public enum AllocationStrategy {
+    LINKED,
+    FIRST_FIT_EXTENT,
+    BEST_FIT_EXTENT,
+    NEXT_FIT
+}
@@ -0,0 +1,95 @@
+package proyecto2so.storage;
+
+/**
+ * ARC (Adaptive Replacement Cache): reparte el buffer entre bloques vistos una vez (T1) y vistos
+ * varias veces (T2), y ajusta el tamaño objetivo de T1 según los aciertos en las listas fantasma
+ * B1 y B2. Se adapta solo entre recencia y frecuencia y resiste recorridos secuenciales.
+ */
+final class ArcTracker implements ReplacementTracker {
+
+    private final int capacity;
+    private final int[] slotBlock;
+    private final IndexList t1;
+    private final IndexList t2;
+    private final GhostList b1;
+    private final GhostList b2;
+    private int target;
+    private boolean loadIntoT2;
+
+    ArcTracker(int capacity) {
+        this.capacity = capacity;
+        slotBlock = new int[capacity];
+        t1 = new IndexList(capacity);
+        t2 = new IndexList(capacity);
+        b1 = new GhostList(capacity);
+        b2 = new GhostList(capacity);
+    }
+
+    @Override
+    public void onLoad(int slot, int blockIndex) {
+        slotBlock[slot] = blockIndex;
+        if (loadIntoT2) {
+            t2.pushFront(slot);
+        } else {
+            t1.pushFront(slot);
+        }
+        loadIntoT2 = false;
+    }
+
+    @Override
+    public void onHit(int slot) {
+        t1.remove(slot);
+        t2.moveToFront(slot);
+    }
+
+    @Override
+    public int selectVictim(int incomingBlock) {
+        if (b1.contains(incomingBlock)) {
+            target = Math.min(capacity, target + Math.max(b2.size() / b1.size(), 1));
+            b1.remove(incomingBlock);
+            loadIntoT2 = true;
+            return replace(false);
+        }
+        if (b2.contains(incomingBlock)) {
+            target = Math.max(0, target - Math.max(b1.size() / b2.size(), 1));
+            b2.remove(incomingBlock);
+            loadIntoT2 = true;
+            return replace(true);
+        }
+        loadIntoT2 = false;
+        if (t1.size() + b1.size() >= capacity) {
+            if (t1.size() < capacity) {
+                b1.removeLast();
+                return replace(false);
+            }
+            // T1 ocupa todo el buffer: se descarta su bloque más antiguo sin recordarlo
+            return t1.removeLast();
+        }
+        if (t1.size() + t2.size() + b1.size() + b2.size() >= 2 * capacity) {
+            b2.removeLast();
+        }
+        return replace(false);
+    }
+
+    private int replace(boolean incomingInB2) {
+        int t1Size = t1.size();
+        if (t1Size > 0 && (t1Size > target || (incomingInB2 && t1Size == target) || t2.isEmpty())) {
+            int victim = t1.removeLast();
+            b1.add(slotBlock[victim]);
+            return victim;
+        }
+        int victim = t2.removeLast();
+        b2.add(slotBlock[victim]);
+        return victim;
+    }
+
+    @Override
+    public void clear() {
+        t1.clear();
+        t2.clear();
+        b1.clear();
+        b2.clear();
+        target = 0;
+        loadIntoT2 = false;
+    }
+}
@@ -6,6 +6,8 @@ package proyecto2so.storage;
 public class BlockAllocator {
 
     private final Disk disk;
+    private AllocationStrategy strategy = AllocationStrategy.LINKED;
+    private int nextFitCursor;
 
     public BlockAllocator(Disk disk) {
         this.disk = disk;
@@ -15,29 +17,198 @@ public class BlockAllocator {
         return disk;
     }
 
+    public AllocationStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(AllocationStrategy strategy) {
+        this.strategy = strategy == null ? AllocationStrategy.LINKED : strategy;
+    }
+
     public int allocateChain(String fileId, int blocksNeeded) {
-        int previousIndex = -1;
-        int headIndex = -1;
-        for (int i = 0; i < disk.capacity() && blocksNeeded > 0; i++) {
-            DiskBlock block = disk.getBlock(i);
-            if (block.isFree()) {
-                block.occupy(fileId);
-                if (previousIndex != -1) {
-                    disk.getBlock(previousIndex).setNextIndex(block.getIndex());
-                }
-                if (headIndex == -1) {
-                    headIndex = block.getIndex();
+        BlockChain chain = new BlockChain();
+        return extendChain(chain, fileId, blocksNeeded) ? chain.getHeadIndex() : -1;
+    }
+
+    /**
+     * Agrega {@code blocksNeeded} bloques al final de la cadena, enlazándolos a partir de su cola.
+     * El costo depende solo de los bloques nuevos, no de la longitud previa de la cadena.
+     *
+     * @return false si no hay espacio suficiente (la cadena no cambia)
+     */
+    public boolean extendChain(BlockChain chain, String fileId, int blocksNeeded) {
+        if (blocksNeeded <= 0 || blocksNeeded > disk.getFreeBlockCount()) {
+            return false;
+        }
+        int runStart = -1;
+        if (strategy != AllocationStrategy.LINKED && !chain.isEmpty()) {
+            // Se intenta continuar el último tramo para que el archivo siga siendo contiguo
+            int afterTail = chain.getTailIndex() + 1;
+            if (disk.freeRunEnd(afterTail) - afterTail >= blocksNeeded) {
+                runStart = afterTail;
+            }
+        }
+        if (runStart == -1) {
+            runStart = findRun(blocksNeeded);
+        }
+        if (runStart != -1) {
+            occupyRun(fileId, runStart, blocksNeeded, chain);
+        } else {
+            // Sin tramo contiguo suficiente: se recurre a la asignación enlazada de bloques sueltos
+            gather(fileId, gatherStart(), blocksNeeded, chain);
+        }
+        nextFitCursor = chain.getTailIndex() + 1;
+        if (nextFitCursor >= disk.capacity()) {
+            nextFitCursor = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Bloques que ocuparía, en orden de la cadena, un archivo nuevo de {@code blocksNeeded}
+     * bloques si se asignara ahora con la estrategia actual. No ocupa nada ni mueve el cursor
+     * de {@code NEXT_FIT}.
+     *
+     * @return null si no hay espacio suficiente
+     */
+    public int[] planChain(int blocksNeeded) {
+        if (blocksNeeded <= 0 || blocksNeeded > disk.getFreeBlockCount()) {
+            return null;
+        }
+        int[] blocks = new int[blocksNeeded];
+        int runStart = findRun(blocksNeeded);
+        if (runStart != -1) {
+            for (int i = 0; i < blocksNeeded; i++) {
+                blocks[i] = runStart + i;
+            }
+            return blocks;
+        }
+        // Mismo recorrido que gather: desde su inicio hasta el final y luego desde el bloque 0
+        int from = gatherStart();
+        int count = collectFree(from, disk.capacity(), blocks, 0);
+        collectFree(0, from, blocks, count);
+        return blocks;
+    }
+
+    /**
+     * Conserva los primeros {@code keepBlocks} bloques de la cadena y libera el resto.
+     */
+    public void truncateChain(BlockChain chain, int keepBlocks) {
+        if (keepBlocks >= chain.getLength()) {
+            return;
+        }
+        ExtentList released = new ExtentList();
+        chain.truncate(keepBlocks, released);
+        DiskBlock tail = disk.getBlock(chain.getTailIndex());
+        if (tail != null) {
+            tail.setNextIndex(-1);
+        }
+        releaseExtents(released);
+    }
+
+    public void releaseChain(BlockChain chain) {
+        releaseExtents(chain.getExtents());
+        chain.clear();
+    }
+
+    /**
+     * Inicio del tramo libre que elige la estrategia para {@code blocksNeeded} bloques, o -1 si
+     * no hay uno o la estrategia es enlazada.
+     */
+    private int findRun(int blocksNeeded) {
+        switch (strategy) {
+            case FIRST_FIT_EXTENT:
+                return findFirstFit(0, disk.capacity(), blocksNeeded);
+            case BEST_FIT_EXTENT:
+                return findBestFit(blocksNeeded);
+            case NEXT_FIT:
+                int runStart = findFirstFit(nextFitCursor, disk.capacity(), blocksNeeded);
+                return runStart != -1 ? runStart : findFirstFit(0, nextFitCursor, blocksNeeded);
+            default:
+                return -1;
+        }
+    }
+
+    private int gatherStart() {
+        return strategy == AllocationStrategy.NEXT_FIT ? nextFitCursor : 0;
+    }
+
+    /**
+     * Anota en {@code blocks}, desde {@code count}, los bloques libres de [{@code from},
+     * {@code limit}) hasta llenarlo.
+     *
+     * @return cuántos bloques quedaron anotados
+     */
+    private int collectFree(int from, int limit, int[] blocks, int count) {
+        int start = disk.nextFreeBlock(from);
+        while (count < blocks.length && start != -1 && start < limit) {
+            int end = Math.min(disk.freeRunEnd(start), limit);
+            while (start < end && count < blocks.length) {
+                blocks[count++] = start++;
+            }
+            start = disk.nextFreeBlock(end);
+        }
+        return count;
+    }
+
+    private int findFirstFit(int from, int limit, int blocksNeeded) {
+        int start = disk.nextFreeBlock(from);
+        while (start != -1 && start < limit) {
+            int end = disk.freeRunEnd(start);
+            if (end - start >= blocksNeeded) {
+                return start;
+            }
+            start = disk.nextFreeBlock(end);
+        }
+        return -1;
+    }
+
+    private int findBestFit(int blocksNeeded) {
+        int bestStart = -1;
+        int bestLength = Integer.MAX_VALUE;
+        int start = disk.nextFreeBlock(0);
+        while (start != -1) {
+            int end = disk.freeRunEnd(start);
+            int length = end - start;
+            if (length >= blocksNeeded && length < bestLength) {
+                bestStart = start;
+                bestLength = length;
+                if (length == blocksNeeded) {
+                    break;
                 }
-                previousIndex = block.getIndex();
-                blocksNeeded--;
             }
+            start = disk.nextFreeBlock(end);
         }
-        if (blocksNeeded > 0) {
-            // rollback partial allocation
-            releaseChain(headIndex);
-            return -1;
+        return bestStart;
+    }
+
+    private void gather(String fileId, int from, int blocksNeeded, BlockChain chain) {
+        int start = disk.nextFreeBlock(from);
+        if (start == -1) {
+            start = disk.nextFreeBlock(0);
+        }
+        while (blocksNeeded > 0 && start != -1) {
+            int end = disk.freeRunEnd(start);
+            int taken = Math.min(end - start, blocksNeeded);
+            occupyRun(fileId, start, taken, chain);
+            blocksNeeded -= taken;
+            start = disk.nextFreeBlock(start + taken);
+            if (start == -1) {
+                start = disk.nextFreeBlock(0);
+            }
+        }
+    }
+
+    private void occupyRun(String fileId, int start, int length, BlockChain chain) {
+        int previousIndex = chain.getTailIndex();
+        for (int i = start; i < start + length; i++) {
+            disk.getBlock(i).occupy(fileId);
+            if (previousIndex != -1) {
+                disk.getBlock(previousIndex).setNextIndex(i);
+            }
+            previousIndex = i;
         }
-        return headIndex;
+        chain.appendRun(start, length);
     }
 
     public void releaseChain(int startIndex) {
@@ -52,4 +223,47 @@ public class BlockAllocator {
             cursor = next;
         }
     }
+
+    /**
+     * Libera todos los bloques de los tramos indicados sin recorrer punteros.
+     */
+    public void releaseExtents(ExtentList extents) {
+        for (int e = 0; e < extents.size(); e++) {
+            int start = extents.getStart(e);
+            int end = start + extents.getLength(e);
+            for (int i = start; i < end; i++) {
+                DiskBlock block = disk.getBlock(i);
+                if (block != null) {
+                    block.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstruye la cadena ya presente en disco (por ejemplo, tras cargar un snapshot).
+     */
+    public BlockChain chainOf(int startIndex) {
+        BlockChain chain = new BlockChain();
+        int cursor = startIndex;
+        int runStart = -1;
+        int runLength = 0;
+        int steps = 0;
+        while (cursor != -1 && steps++ < disk.capacity()) {
+            DiskBlock block = disk.getBlock(cursor);
+            if (block == null || block.isFree()) {
+                break;
+            }
+            if (runStart != -1 && runStart + runLength == cursor) {
+                runLength++;
+            } else {
+                chain.appendRun(runStart, runLength);
+                runStart = cursor;
+                runLength = 1;
+            }
+            cursor = block.getNextIndex();
+        }
+        chain.appendRun(runStart, runLength);
+        return chain;
+    }
 }
@@ -1,25 +1,49 @@
 package proyecto2so.storage;
 
 /**
- * Describe la cadena (lista enlazada) de bloques asignados a un archivo.
+ * Describe la cadena (lista enlazada) de bloques asignados a un archivo: cabeza, cola, longitud
+ * y los tramos contiguos que la forman. El asignador la mantiene al día en cada operación.
  */
 public class BlockChain {
 
     private int headIndex = -1;
     private int tailIndex = -1;
     private int length;
+    private final ExtentList extents = new ExtentList();
 
+    /**
+     * Registra un bloque al final de la cadena. El enlace en disco lo hace quien llama.
+     */
     public void append(int blockIndex) {
+        appendRun(blockIndex, 1);
+    }
+
+    void appendRun(int start, int runLength) {
+        if (runLength <= 0) {
+            return;
+        }
         if (headIndex == -1) {
-            headIndex = blockIndex;
-        } else {
-            // Caller must ensure linking on disk blocks; this class just tracks positions
-            tailIndex = blockIndex;
+            headIndex = start;
         }
-        if (tailIndex == -1) {
-            tailIndex = blockIndex;
+        tailIndex = start + runLength - 1;
+        length += runLength;
+        extents.add(start, runLength);
+    }
+
+    void truncate(int keepBlocks, ExtentList released) {
+        extents.truncate(keepBlocks, released);
+        length = extents.getTotalBlocks();
+        tailIndex = extents.lastBlock();
+        if (length == 0) {
+            headIndex = -1;
         }
-        length++;
+    }
+
+    void clear() {
+        headIndex = -1;
+        tailIndex = -1;
+        length = 0;
+        extents.clear();
     }
 
     public int getHeadIndex() {
@@ -37,4 +61,15 @@ public class BlockChain {
     public boolean isEmpty() {
         return length == 0;
     }
+
+    public ExtentList getExtents() {
+        return extents;
+    }
+
+    /**
+     * Índice en disco del bloque lógico {@code logicalIndex} de la cadena, o -1 si no existe.
+     */
+    public int blockAt(int logicalIndex) {
+        return extents.blockAt(logicalIndex);
+    }
 }
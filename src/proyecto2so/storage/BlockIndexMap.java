@@ -0,0 +1,94 @@
+package proyecto2so.storage;
+
+/**
+ * Tabla hash de direccionamiento abierto (sondeo lineal) que asocia índices de bloque con
+ * posiciones del buffer usando solo arreglos de enteros, sin objetos envoltorio.
+ */
+final class BlockIndexMap {
+
+    private static final int EMPTY = -1;
+
+    private final int[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    BlockIndexMap(int expectedEntries) {
+        int capacity = 2;
+        while (capacity < expectedEntries * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        clear();
+    }
+
+    private int slotFor(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @return valor asociado o -1 si la clave no está
+     */
+    int get(int key) {
+        int i = slotFor(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    void put(int key, int value) {
+        int i = slotFor(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    void remove(int key) {
+        int i = slotFor(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        // Borrado con desplazamiento hacia atrás para no dejar lápidas en las cadenas de sondeo
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != EMPTY) {
+            int home = slotFor(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = EMPTY;
+        }
+        size = 0;
+    }
+}
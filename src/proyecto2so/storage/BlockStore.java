@@ -0,0 +1,51 @@
+package proyecto2so.storage;
+
+import java.io.IOException;
+
+/**
+ * Almacenamiento físico de los bloques del disco: cabeceras (libre, siguiente, dueño) y contenido.
+ * {@link Disk} y {@link DiskBlock} solo guardan índices y delegan aquí, de modo que el disco puede
+ * vivir en el heap ({@link HeapBlockStore}) o en un archivo mapeado en memoria ({@link MappedBlockStore}).
+ */
+public interface BlockStore {
+
+    int capacity();
+
+    /**
+     * Tamaño máximo en bytes del contenido de un bloque.
+     */
+    int blockSize();
+
+    boolean isFree(int index);
+
+    void setFree(int index, boolean free);
+
+    int getNextIndex(int index);
+
+    void setNextIndex(int index, int nextIndex);
+
+    String getOwnerId(int index);
+
+    void setOwnerId(int index, String ownerId);
+
+    int getLength(int index);
+
+    /**
+     * Copia el contenido del bloque en {@code target} a partir de {@code offset}.
+     *
+     * @return bytes copiados
+     */
+    int read(int index, byte[] target, int offset);
+
+    /**
+     * Reemplaza el contenido del bloque; {@code count} ya viene acotado a {@link #blockSize()}.
+     */
+    void write(int index, byte[] source, int offset, int count);
+
+    /**
+     * Asegura que los cambios lleguen al medio persistente (no hace nada en memoria).
+     */
+    void force();
+
+    void close() throws IOException;
+}
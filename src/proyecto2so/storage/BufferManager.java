@@ -1,87 +1,381 @@
 package proyecto2so.storage;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import proyecto2so.core.SystemConfig;
 
 /**
- * Gestiona el buffer/caché intermedio y aplica la política de reemplazo elegida.
+ * Gestiona el buffer/caché intermedio y aplica la política de reemplazo elegida. En modo
+ * write-back las escrituras quedan en el buffer y se bajan al disco por lotes ordenados según
+ * el recorrido del cabezal.
  */
 public class BufferManager {
 
-    private final BufferSlot[] slots = new BufferSlot[SystemConfig.MAX_BUFFER_SLOTS];
+    private static final double DEFAULT_DIRTY_WATERMARK = 0.5;
+    private static final int MIN_READ_AHEAD = 1;
+    private static final int MAX_READ_AHEAD = 32;
+
+    private final Disk disk;
+    private final BufferSlot[] slots;
+    private final BlockIndexMap index;
     private BufferPolicy policy = BufferPolicy.FIFO;
+    private ReplacementTracker tracker;
     private long clock;
-    private int fifoPointer;
+    private int usedSlots;
     private int hits;
     private int misses;
+    private boolean writeBack;
+    private int dirtyCount;
+    private int dirtyWatermark;
+    private int flushedBlocks;
+    private boolean readAhead = true;
+    private int readAheadWindow = 2;
+    private int lastReadBlock = -1;
+    private int prefetchHits;
+    private int prefetchWasted;
 
     public BufferManager() {
+        this(null, SystemConfig.DEFAULT_MAX_BUFFER_SLOTS);
+    }
+
+    public BufferManager(int slotCount) {
+        this(null, slotCount);
+    }
+
+    public BufferManager(Disk disk) {
+        this(disk, SystemConfig.DEFAULT_MAX_BUFFER_SLOTS);
+    }
+
+    public BufferManager(Disk disk, int slotCount) {
+        this.disk = disk;
+        this.slots = new BufferSlot[Math.max(1, slotCount)];
+        this.index = new BlockIndexMap(slots.length);
+        int blockSize = disk == null ? SystemConfig.DEFAULT_BLOCK_SIZE_BYTES : disk.getBlockSize();
         for (int i = 0; i < slots.length; i++) {
-            slots[i] = new BufferSlot();
+            slots[i] = new BufferSlot(blockSize);
         }
+        this.tracker = createTracker(policy);
+        this.dirtyWatermark = watermarkFor(slots.length, DEFAULT_DIRTY_WATERMARK);
     }
 
+    /**
+     * Cambia la política sin vaciar el buffer: la nueva recibe los slots ocupados del menos al
+     * más recientemente usado, con sus aciertos, para que su primera víctima tenga sentido.
+     */
     public void setPolicy(BufferPolicy policy) {
+        if (policy == null || policy == this.policy) {
+            return;
+        }
         this.policy = policy;
+        this.tracker = createTracker(policy);
+        Integer[] order = new Integer[usedSlots];
+        for (int i = 0; i < usedSlots; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Long.compare(slots[a].getLastAccessTick(), slots[b].getLastAccessTick());
+            }
+        });
+        for (int i = 0; i < order.length; i++) {
+            BufferSlot slot = slots[order[i]];
+            tracker.onRestore(order[i], slot.getBlockIndex(), slot.getHitCount());
+        }
+    }
+
+    public BufferPolicy getPolicy() {
+        return policy;
+    }
+
+    private ReplacementTracker createTracker(BufferPolicy selected) {
+        switch (selected) {
+            case LRU:
+                return new LruTracker(slots.length);
+            case LFU:
+                return new LfuTracker(slots.length);
+            case CLOCK:
+                return new ClockTracker(slots.length);
+            case TWO_Q:
+                return new TwoQueueTracker(slots.length);
+            case ARC:
+                return new ArcTracker(slots.length);
+            case W_TINY_LFU:
+                return new TinyLfuTracker(slots.length);
+            default:
+                return new FifoTracker(slots.length);
+        }
     }
 
-    public BufferSlot fetchBlock(int blockIndex, String diskPayload) {
+    /**
+     * Busca el bloque en el buffer; en un fallo lo carga desde el disco asociado (o vacío si el
+     * buffer no tiene disco).
+     */
+    public BufferSlot fetchBlock(int blockIndex) {
         clock++;
-        BufferSlot slot = find(blockIndex);
-        if (slot != null) {
+        int position = index.get(blockIndex);
+        if (position != -1) {
+            BufferSlot slot = slots[position];
             slot.touch(clock);
+            tracker.onHit(position);
             hits++;
             return slot;
         }
-        BufferSlot target = selectVictim();
-        target.load(blockIndex, diskPayload, clock);
+        BufferSlot target = loadFromDisk(blockIndex);
         misses++;
         return target;
     }
 
-    private BufferSlot find(int blockIndex) {
-        for (int i = 0; i < slots.length; i++) {
-            if (!slots[i].isEmpty() && slots[i].getBlockIndex() == blockIndex) {
-                return slots[i];
+    /**
+     * Lee un bloque a través del buffer; en un fallo el contenido se toma del disco asociado.
+     * Si la lectura continúa la cadena del bloque leído antes, se anticipan los siguientes bloques
+     * de la cadena con una ventana que crece cuando se aprovechan y se reduce cuando se desperdician.
+     * Con un solo slot no se anticipa nada: cada bloque anticipado desalojaría al que se devuelve.
+     */
+    public BufferSlot readBlock(int blockIndex) {
+        if (disk == null) {
+            return fetchBlock(blockIndex);
+        }
+        boolean sequential = false;
+        if (lastReadBlock != -1) {
+            DiskBlock previous = disk.getBlock(lastReadBlock);
+            sequential = previous != null && previous.getNextIndex() == blockIndex;
+        }
+        lastReadBlock = blockIndex;
+        boolean cached = index.get(blockIndex) != -1;
+        BufferSlot slot = fetchBlock(blockIndex);
+        if (cached && slot.isPrefetched()) {
+            slot.setPrefetched(false);
+            prefetchHits++;
+            readAheadWindow = Math.min(maxReadAhead(), readAheadWindow * 2);
+        }
+        if (readAhead && sequential && slots.length > 1) {
+            prefetchAfter(blockIndex);
+            if (slot.getBlockIndex() != blockIndex) {
+                // Según la política, el slot recién leído pudo ser la víctima de una anticipación
+                slot = fetchBlock(blockIndex);
             }
         }
-        return null;
+        return slot;
     }
 
-    private BufferSlot selectVictim() {
-        for (int i = 0; i < slots.length; i++) {
-            if (slots[i].isEmpty()) {
-                return slots[i];
+    private void prefetchAfter(int blockIndex) {
+        DiskBlock cursor = disk.getBlock(blockIndex);
+        for (int i = 0; i < readAheadWindow && cursor != null; i++) {
+            int next = cursor.getNextIndex();
+            cursor = disk.getBlock(next);
+            if (cursor == null || cursor.isFree()) {
+                return;
+            }
+            if (index.get(next) == -1) {
+                clock++;
+                loadFromDisk(next).setPrefetched(true);
             }
         }
-        if (policy == BufferPolicy.FIFO) {
-            BufferSlot victim = slots[fifoPointer];
-            fifoPointer = (fifoPointer + 1) % slots.length;
-            return victim;
+    }
+
+    private int maxReadAhead() {
+        // Nunca se anticipa más de la mitad del buffer para no expulsar lo que se está leyendo
+        return Math.max(MIN_READ_AHEAD, Math.min(MAX_READ_AHEAD, slots.length / 2));
+    }
+
+    /**
+     * Copia en {@code target} el contenido vigente del bloque (la copia del buffer si existe, si no
+     * la del disco) sin alterar estadísticas ni el orden de reemplazo.
+     *
+     * @return bytes copiados
+     */
+    public int peek(int blockIndex, byte[] target, int offset) {
+        int position = index.get(blockIndex);
+        if (position != -1) {
+            return slots[position].read(target, offset);
         }
-        if (policy == BufferPolicy.LRU) {
-            return findOldest();
+        DiskBlock block = disk == null ? null : disk.getBlock(blockIndex);
+        return block == null ? 0 : block.read(target, offset);
+    }
+
+    /**
+     * Longitud vigente del bloque, con la misma regla que {@link #peek}.
+     */
+    public int peekLength(int blockIndex) {
+        int position = index.get(blockIndex);
+        if (position != -1) {
+            return slots[position].getLength();
         }
-        return findLeastFrequentlyUsed();
+        DiskBlock block = disk == null ? null : disk.getBlock(blockIndex);
+        return block == null ? 0 : block.getLength();
     }
 
-    private BufferSlot findOldest() {
-        BufferSlot candidate = slots[0];
-        for (int i = 1; i < slots.length; i++) {
-            if (slots[i].getLastAccessTick() < candidate.getLastAccessTick()) {
-                candidate = slots[i];
+    /**
+     * Escribe el contenido de un bloque. En write-back queda sucio en el buffer; si no, se escribe
+     * directo en disco y se actualiza la copia en caché para que no quede obsoleta.
+     */
+    public void writeBlock(int blockIndex, byte[] source, int offset, int count) {
+        int position = index.get(blockIndex);
+        if (!writeBack || disk == null) {
+            if (disk != null) {
+                DiskBlock block = disk.getBlock(blockIndex);
+                if (block != null) {
+                    block.write(source, offset, count);
+                }
             }
+            if (position != -1) {
+                slots[position].refresh(source, offset, count);
+            }
+            return;
+        }
+        clock++;
+        BufferSlot slot;
+        if (position != -1) {
+            slot = slots[position];
+            slot.touch(clock);
+            tracker.onHit(position);
+        } else {
+            // No hace falta leer el disco: la escritura reemplaza el bloque completo
+            int target = claimSlot(blockIndex);
+            slot = slots[target];
+            slot.load(blockIndex, source, offset, count, clock);
+            register(blockIndex, target);
+        }
+        if (!slot.isDirty()) {
+            dirtyCount++;
+        }
+        slot.write(source, offset, count);
+        if (dirtyCount > dirtyWatermark) {
+            flushDirty();
         }
-        return candidate;
     }
 
-    private BufferSlot findLeastFrequentlyUsed() {
-        BufferSlot candidate = slots[0];
-        for (int i = 1; i < slots.length; i++) {
-            if (slots[i].getHitCount() < candidate.getHitCount()) {
-                candidate = slots[i];
+    private BufferSlot loadFromDisk(int blockIndex) {
+        int target = claimSlot(blockIndex);
+        BufferSlot slot = slots[target];
+        slot.load(blockIndex, disk == null ? null : disk.getBlock(blockIndex), clock);
+        register(blockIndex, target);
+        return slot;
+    }
+
+    private void register(int blockIndex, int position) {
+        index.put(blockIndex, position);
+        tracker.onLoad(position, blockIndex);
+    }
+
+    /**
+     * Libera un slot para {@code blockIndex}, desalojando (y bajando a disco si está sucio) a la víctima.
+     */
+    private int claimSlot(int blockIndex) {
+        int target = selectVictim(blockIndex);
+        BufferSlot victim = slots[target];
+        if (!victim.isEmpty()) {
+            if (victim.isPrefetched()) {
+                prefetchWasted++;
+                readAheadWindow = Math.max(MIN_READ_AHEAD, readAheadWindow / 2);
+            }
+            if (victim.isDirty()) {
+                // La víctima sucia arrastra al disco a todas las demás en un solo barrido
+                flushDirty();
             }
+            index.remove(victim.getBlockIndex());
         }
-        return candidate;
+        return target;
+    }
+
+    /**
+     * Baja al disco todos los bloques sucios.
+     */
+    public void sync() {
+        flushDirty();
+    }
+
+    private void flushDirty() {
+        if (dirtyCount == 0 || disk == null) {
+            return;
+        }
+        // Orden de elevador: primero los bloques desde el cabezal hacia arriba, luego el resto
+        long[] order = new long[dirtyCount];
+        int count = 0;
+        int head = disk.getHeadPosition();
+        for (int i = 0; i < usedSlots && count < order.length; i++) {
+            if (slots[i].isDirty()) {
+                int block = slots[i].getBlockIndex();
+                long rank = block >= head ? block - head : (long) disk.capacity() + block;
+                order[count++] = (rank << 32) | i;
+            }
+        }
+        Arrays.sort(order, 0, count);
+        for (int k = 0; k < count; k++) {
+            BufferSlot slot = slots[(int) order[k]];
+            DiskBlock block = disk.getBlock(slot.getBlockIndex());
+            // Si el bloque se liberó mientras estaba en el buffer, su contenido ya no importa
+            if (block != null && !block.isFree()) {
+                slot.flushTo(block);
+                flushedBlocks++;
+            }
+            slot.markClean();
+        }
+        dirtyCount = 0;
+    }
+
+    public boolean isWriteBack() {
+        return writeBack;
+    }
+
+    public void setWriteBack(boolean writeBack) {
+        if (!writeBack) {
+            flushDirty();
+        }
+        this.writeBack = writeBack && disk != null;
+    }
+
+    /**
+     * Fracción de slots sucios (0..1) a partir de la cual se fuerza un vaciado.
+     */
+    public void setDirtyWatermark(double fraction) {
+        this.dirtyWatermark = watermarkFor(slots.length, fraction);
+    }
+
+    private static int watermarkFor(int slotCount, double fraction) {
+        double bounded = Math.max(0.0, Math.min(1.0, fraction));
+        return Math.max(1, (int) (slotCount * bounded));
+    }
+
+    public int getDirtyCount() {
+        return dirtyCount;
+    }
+
+    public int getFlushedBlocks() {
+        return flushedBlocks;
+    }
+
+    public boolean isReadAhead() {
+        return readAhead;
+    }
+
+    public void setReadAhead(boolean readAhead) {
+        this.readAhead = readAhead;
+    }
+
+    public int getReadAheadWindow() {
+        return readAheadWindow;
+    }
+
+    public int getPrefetchHits() {
+        return prefetchHits;
+    }
+
+    public int getPrefetchWasted() {
+        return prefetchWasted;
+    }
+
+    private int selectVictim(int incomingBlock) {
+        // Los slots se llenan en orden y solo se vacían todos juntos en reset()
+        if (usedSlots < slots.length) {
+            return usedSlots++;
+        }
+        return tracker.selectVictim(incomingBlock);
+    }
+
+    public int capacity() {
+        return slots.length;
     }
 
     public BufferSlot[] snapshot() {
@@ -92,10 +386,18 @@ public class BufferManager {
         for (int i = 0; i < slots.length; i++) {
             slots[i].clear();
         }
+        index.clear();
+        usedSlots = 0;
+        tracker.clear();
         clock = 0L;
-        fifoPointer = 0;
         hits = 0;
         misses = 0;
+        dirtyCount = 0;
+        flushedBlocks = 0;
+        readAheadWindow = 2;
+        lastReadBlock = -1;
+        prefetchHits = 0;
+        prefetchWasted = 0;
     }
 
     public int getHits() {
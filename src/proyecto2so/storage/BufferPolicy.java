@@ -6,5 +6,9 @@ package proyecto2so.storage;
 public enum BufferPolicy {
     FIFO,
     LRU,
-    LFU
+    LFU,
+    CLOCK,
+    TWO_Q,
+    ARC,
+    W_TINY_LFU
 }
@@ -1,24 +1,57 @@
 package proyecto2so.storage;
 
+import java.nio.charset.StandardCharsets;
+import proyecto2so.core.SystemConfig;
+
 /**
- * Representa una posición del buffer/caché intermedio.
+ * Representa una posición del buffer/caché intermedio. Guarda una copia en bytes del bloque en un
+ * arreglo propio que se reutiliza entre cargas.
  */
 public class BufferSlot {
 
+    private final int blockSize;
     private int blockIndex = -1;
-    private String data = "";
+    private byte[] data;
+    private int length;
     private long lastAccessTick;
     private int hitCount;
+    private boolean dirty;
+    private boolean prefetched;
+
+    public BufferSlot() {
+        this(SystemConfig.DEFAULT_BLOCK_SIZE_BYTES);
+    }
+
+    public BufferSlot(int blockSize) {
+        this.blockSize = blockSize;
+    }
 
     public boolean isEmpty() {
         return blockIndex == -1;
     }
 
-    public void load(int blockIndex, String data, long tick) {
+    /**
+     * Carga el bloque copiando su contenido desde el disco.
+     */
+    public void load(int blockIndex, DiskBlock source, long tick) {
         this.blockIndex = blockIndex;
-        this.data = data;
+        copyFrom(source);
         this.lastAccessTick = tick;
         this.hitCount = 1;
+        this.dirty = false;
+        this.prefetched = false;
+    }
+
+    /**
+     * Carga el bloque con los bytes indicados (por ejemplo, una escritura que aún no está en disco).
+     */
+    public void load(int blockIndex, byte[] source, int offset, int count, long tick) {
+        this.blockIndex = blockIndex;
+        copyFrom(source, offset, count);
+        this.lastAccessTick = tick;
+        this.hitCount = 1;
+        this.dirty = false;
+        this.prefetched = false;
     }
 
     public void touch(long tick) {
@@ -26,12 +59,91 @@ public class BufferSlot {
         this.hitCount++;
     }
 
+    /**
+     * Reemplaza el contenido con datos nuevos pendientes de escribir en disco.
+     */
+    public void write(byte[] source, int offset, int count) {
+        copyFrom(source, offset, count);
+        this.dirty = true;
+    }
+
+    /**
+     * Actualiza la copia en caché tras una escritura directa al disco.
+     */
+    public void refresh(byte[] source, int offset, int count) {
+        copyFrom(source, offset, count);
+    }
+
+    private void copyFrom(DiskBlock source) {
+        ensureCapacity();
+        length = source == null ? 0 : source.read(data, 0);
+    }
+
+    private void copyFrom(byte[] source, int offset, int count) {
+        ensureCapacity();
+        length = Math.max(0, Math.min(count, data.length));
+        if (length > 0) {
+            System.arraycopy(source, offset, data, 0, length);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (data == null) {
+            data = new byte[blockSize];
+        }
+    }
+
+    /**
+     * Escribe la copia del buffer en el bloque de disco.
+     */
+    public void flushTo(DiskBlock target) {
+        target.write(data, 0, length);
+    }
+
+    /**
+     * Copia el contenido en {@code target} a partir de {@code offset}.
+     *
+     * @return bytes copiados
+     */
+    public int read(byte[] target, int offset) {
+        if (length > 0) {
+            System.arraycopy(data, 0, target, offset, length);
+        }
+        return length;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Indica que el bloque se cargó por lectura anticipada y todavía nadie lo pidió.
+     */
+    public boolean isPrefetched() {
+        return prefetched;
+    }
+
+    public void setPrefetched(boolean prefetched) {
+        this.prefetched = prefetched;
+    }
+
+    public void markClean() {
+        this.dirty = false;
+    }
+
     public int getBlockIndex() {
         return blockIndex;
     }
 
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Contenido decodificado como UTF-8; pensado para la interfaz, no para E/S.
+     */
     public String getData() {
-        return data;
+        return length == 0 ? "" : new String(data, 0, length, StandardCharsets.UTF_8);
     }
 
     public long getLastAccessTick() {
@@ -44,8 +156,10 @@ public class BufferSlot {
 
     public void clear() {
         blockIndex = -1;
-        data = "";
+        length = 0;
         lastAccessTick = 0L;
         hitCount = 0;
+        dirty = false;
+        prefetched = false;
     }
 }
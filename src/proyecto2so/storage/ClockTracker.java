@@ -0,0 +1,44 @@
+package proyecto2so.storage;
+
+/**
+ * CLOCK (segunda oportunidad): una manecilla recorre los slots y solo reemplaza los que no
+ * fueron referenciados desde la vuelta anterior.
+ */
+final class ClockTracker implements ReplacementTracker {
+
+    private final boolean[] referenced;
+    private int hand;
+
+    ClockTracker(int capacity) {
+        this.referenced = new boolean[capacity];
+    }
+
+    @Override
+    public void onLoad(int slot, int blockIndex) {
+        referenced[slot] = false;
+    }
+
+    @Override
+    public void onHit(int slot) {
+        referenced[slot] = true;
+    }
+
+    @Override
+    public int selectVictim(int incomingBlock) {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = (hand + 1) % referenced.length;
+        }
+        int victim = hand;
+        hand = (hand + 1) % referenced.length;
+        return victim;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < referenced.length; i++) {
+            referenced[i] = false;
+        }
+        hand = 0;
+    }
+}
@@ -1,25 +1,65 @@
 package proyecto2so.storage;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import proyecto2so.core.SystemConfig;
 
 /**
- * Disco lógico: mantiene los bloques y la posición del cabezal.
+ * Disco lógico: mantiene el mapa de bits de espacio libre y la posición del cabezal. Las
+ * cabeceras y el contenido de los bloques viven en un {@link BlockStore}; el mapa de bits se
+ * reconstruye a partir de él al abrir el disco. Un segundo mapa marca los bloques modificados
+ * desde el último {@link #clearDirty()}, para que un snapshot incremental guarde solo esos.
  */
 public class Disk {
 
-    private final DiskBlock[] blocks;
+    private final BlockStore store;
+    private final int capacity;
+    // Bit en 1 = bloque libre; 64 bloques por palabra
+    private final long[] freeMap;
+    private int freeCount;
+    // Bit en 1 = bloque modificado desde el último snapshot
+    private final long[] dirtyMap;
+    private int dirtyCount;
     private int headPosition;
 
     public Disk() {
-        this.blocks = new DiskBlock[SystemConfig.MAX_BLOCKS];
-        for (int i = 0; i < blocks.length; i++) {
-            blocks[i] = new DiskBlock(i);
+        this(new HeapBlockStore(SystemConfig.DEFAULT_MAX_BLOCKS, SystemConfig.DEFAULT_BLOCK_SIZE_BYTES));
+    }
+
+    /**
+     * Disco en memoria con la geometría de la configuración.
+     */
+    public Disk(SystemConfig config) {
+        this(new HeapBlockStore(config.getMaxBlocks(), config.getBlockSizeBytes()));
+    }
+
+    public Disk(BlockStore store) {
+        this.store = store;
+        this.capacity = store.capacity();
+        this.freeMap = new long[(capacity + 63) >>> 6];
+        this.dirtyMap = new long[freeMap.length];
+        for (int i = 0; i < capacity; i++) {
+            if (store.isFree(i)) {
+                freeMap[i >>> 6] |= 1L << i;
+                freeCount++;
+            }
         }
         this.headPosition = 0;
     }
 
-    public DiskBlock[] getBlocks() {
-        return blocks;
+    /**
+     * Abre (o crea) un disco respaldado por un archivo mapeado en memoria.
+     */
+    public static Disk openMapped(Path file, int capacity, int blockSize) throws IOException {
+        return new Disk(MappedBlockStore.open(file, capacity, blockSize));
+    }
+
+    public BlockStore getStore() {
+        return store;
+    }
+
+    public int getBlockSize() {
+        return store.blockSize();
     }
 
     public int getHeadPosition() {
@@ -27,36 +67,163 @@ public class Disk {
     }
 
     public void setHeadPosition(int headPosition) {
-        if (headPosition >= 0 && headPosition < blocks.length) {
+        if (headPosition >= 0 && headPosition < capacity) {
             this.headPosition = headPosition;
         }
     }
 
     public DiskBlock getBlock(int index) {
-        if (index < 0 || index >= blocks.length) {
+        if (index < 0 || index >= capacity) {
             return null;
         }
-        return blocks[index];
+        return new DiskBlock(index, this);
+    }
+
+    public boolean isFree(int index) {
+        return (freeMap[index >>> 6] & (1L << index)) != 0;
     }
 
     public int getFreeBlockCount() {
-        int free = 0;
-        for (int i = 0; i < blocks.length; i++) {
-            if (blocks[i].isFree()) {
-                free++;
+        return freeCount;
+    }
+
+    /**
+     * Busca el primer bloque libre con índice mayor o igual a {@code fromIndex}.
+     *
+     * @return índice del bloque libre o -1 si no hay ninguno
+     */
+    public int nextFreeBlock(int fromIndex) {
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        if (fromIndex >= capacity) {
+            return -1;
+        }
+        int word = fromIndex >>> 6;
+        long bits = freeMap[word] & (-1L << fromIndex);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
             }
+            if (++word == freeMap.length) {
+                return -1;
+            }
+            bits = freeMap[word];
+        }
+    }
+
+    /**
+     * Devuelve el primer índice ocupado a partir de {@code fromIndex}, es decir, el final del
+     * tramo libre que empieza ahí; si el tramo llega al final del disco devuelve {@link #capacity()}.
+     */
+    public int freeRunEnd(int fromIndex) {
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        if (fromIndex >= capacity) {
+            return capacity;
+        }
+        int word = fromIndex >>> 6;
+        long bits = ~freeMap[word] & (-1L << fromIndex);
+        while (true) {
+            if (bits != 0) {
+                return Math.min(capacity, (word << 6) + Long.numberOfTrailingZeros(bits));
+            }
+            if (++word == freeMap.length) {
+                return capacity;
+            }
+            bits = ~freeMap[word];
+        }
+    }
+
+    public boolean isDirty(int index) {
+        return (dirtyMap[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public int getDirtyBlockCount() {
+        return dirtyCount;
+    }
+
+    /**
+     * Busca el primer bloque modificado con índice mayor o igual a {@code fromIndex}.
+     *
+     * @return índice del bloque o -1 si no hay ninguno
+     */
+    public int nextDirtyBlock(int fromIndex) {
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        if (fromIndex >= capacity) {
+            return -1;
+        }
+        int word = fromIndex >>> 6;
+        long bits = dirtyMap[word] & (-1L << fromIndex);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == dirtyMap.length) {
+                return -1;
+            }
+            bits = dirtyMap[word];
+        }
+    }
+
+    /**
+     * Olvida las modificaciones; se llama cuando un snapshot ya refleja el disco.
+     */
+    public void clearDirty() {
+        for (int i = 0; i < dirtyMap.length; i++) {
+            dirtyMap[i] = 0;
+        }
+        dirtyCount = 0;
+    }
+
+    void markDirty(int index) {
+        long mask = 1L << index;
+        if ((dirtyMap[index >>> 6] & mask) == 0) {
+            dirtyMap[index >>> 6] |= mask;
+            dirtyCount++;
+        }
+    }
+
+    void markOccupied(int index) {
+        long mask = 1L << index;
+        if ((freeMap[index >>> 6] & mask) != 0) {
+            freeMap[index >>> 6] &= ~mask;
+            freeCount--;
+        }
+    }
+
+    void markFree(int index) {
+        long mask = 1L << index;
+        if ((freeMap[index >>> 6] & mask) == 0) {
+            freeMap[index >>> 6] |= mask;
+            freeCount++;
         }
-        return free;
     }
 
     public int capacity() {
-        return blocks.length;
+        return capacity;
     }
 
     public void reset() {
-        for (int i = 0; i < blocks.length; i++) {
-            blocks[i].release();
+        for (int i = 0; i < capacity; i++) {
+            if (!store.isFree(i) || store.getLength(i) > 0) {
+                new DiskBlock(i, this).release();
+            }
         }
         headPosition = 0;
     }
+
+    /**
+     * Fuerza los cambios al medio persistente del almacenamiento.
+     */
+    public void force() {
+        store.force();
+    }
+
+    public void close() throws IOException {
+        store.close();
+    }
 }
@@ -1,18 +1,20 @@
 package proyecto2so.storage;
 
+import java.nio.charset.StandardCharsets;
+
 /**
- * Modela un bloque individual dentro del disco simulado.
+ * Vista de un bloque individual dentro del disco simulado. No guarda estado propio: la cabecera y
+ * el contenido (bytes, hasta el tamaño de bloque del disco) viven en el {@link BlockStore} del
+ * disco, por lo que crear vistas es barato aunque el disco tenga millones de bloques.
  */
 public class DiskBlock {
 
     private final int index;
-    private boolean free = true;
-    private int nextIndex = -1;
-    private String ownerId = "";
-    private String data = "";
+    private final Disk disk;
 
-    public DiskBlock(int index) {
+    DiskBlock(int index, Disk disk) {
         this.index = index;
+        this.disk = disk;
     }
 
     public int getIndex() {
@@ -20,38 +22,83 @@ public class DiskBlock {
     }
 
     public boolean isFree() {
-        return free;
+        return disk.isFree(index);
     }
 
     public void occupy(String ownerId) {
-        this.free = false;
-        this.ownerId = ownerId;
+        BlockStore store = disk.getStore();
+        store.setFree(index, false);
+        store.setOwnerId(index, ownerId);
+        disk.markOccupied(index);
+        disk.markDirty(index);
     }
 
     public void release() {
-        this.free = true;
-        this.ownerId = "";
-        this.nextIndex = -1;
-        this.data = "";
+        BlockStore store = disk.getStore();
+        store.setFree(index, true);
+        store.setOwnerId(index, "");
+        store.setNextIndex(index, -1);
+        store.write(index, null, 0, 0);
+        disk.markFree(index);
+        disk.markDirty(index);
     }
 
     public int getNextIndex() {
-        return nextIndex;
+        return disk.getStore().getNextIndex(index);
     }
 
     public void setNextIndex(int nextIndex) {
-        this.nextIndex = nextIndex;
+        disk.getStore().setNextIndex(index, nextIndex);
+        disk.markDirty(index);
     }
 
     public String getOwnerId() {
-        return ownerId;
+        return disk.getStore().getOwnerId(index);
+    }
+
+    /**
+     * Cantidad de bytes válidos en el bloque.
+     */
+    public int getLength() {
+        return disk.getStore().getLength(index);
+    }
+
+    /**
+     * Copia el contenido del bloque en {@code target} a partir de {@code offset}.
+     *
+     * @return bytes copiados
+     */
+    public int read(byte[] target, int offset) {
+        return disk.getStore().read(index, target, offset);
+    }
+
+    /**
+     * Reemplaza el contenido con hasta {@link Disk#getBlockSize()} bytes de {@code source}.
+     */
+    public void write(byte[] source, int offset, int count) {
+        BlockStore store = disk.getStore();
+        store.write(index, source, offset, Math.max(0, Math.min(count, store.blockSize())));
+        disk.markDirty(index);
+    }
+
+    /**
+     * Copia exacta de los bytes válidos (para serializar).
+     */
+    public byte[] getBytes() {
+        byte[] copy = new byte[getLength()];
+        read(copy, 0);
+        return copy;
     }
 
+    /**
+     * Contenido decodificado como UTF-8; pensado para la interfaz, no para E/S.
+     */
     public String getData() {
-        return data;
+        return new String(getBytes(), StandardCharsets.UTF_8);
     }
 
-    public void setData(String data) {
-        this.data = data;
+    public void setData(String text) {
+        byte[] bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        write(bytes, 0, bytes.length);
     }
 }
@@ -0,0 +1,142 @@
+package proyecto2so.storage;
+
+/**
+ * Lista de extensiones (inicio, longitud) que describe los tramos contiguos de una asignación.
+ */
+public class ExtentList {
+
+    private int[] starts = new int[4];
+    private int[] lengths = new int[4];
+    // Índice lógico del primer bloque de cada tramo, para búsquedas binarias
+    private int[] offsets = new int[4];
+    private int count;
+    private int totalBlocks;
+
+    /**
+     * Agrega un tramo al final; si continúa al último tramo se fusionan.
+     */
+    public void add(int start, int length) {
+        if (length <= 0) {
+            return;
+        }
+        if (count > 0 && starts[count - 1] + lengths[count - 1] == start) {
+            lengths[count - 1] += length;
+        } else {
+            if (count == starts.length) {
+                grow();
+            }
+            starts[count] = start;
+            lengths[count] = length;
+            offsets[count] = totalBlocks;
+            count++;
+        }
+        totalBlocks += length;
+    }
+
+    private void grow() {
+        int[] newStarts = new int[starts.length * 2];
+        int[] newLengths = new int[lengths.length * 2];
+        int[] newOffsets = new int[offsets.length * 2];
+        System.arraycopy(starts, 0, newStarts, 0, count);
+        System.arraycopy(lengths, 0, newLengths, 0, count);
+        System.arraycopy(offsets, 0, newOffsets, 0, count);
+        starts = newStarts;
+        lengths = newLengths;
+        offsets = newOffsets;
+    }
+
+    public void addAll(ExtentList other) {
+        for (int i = 0; i < other.count; i++) {
+            add(other.starts[i], other.lengths[i]);
+        }
+    }
+
+    /**
+     * Traduce un índice lógico de bloque (0 = primer bloque del archivo) a su índice en disco
+     * mediante búsqueda binaria sobre los tramos.
+     *
+     * @return índice físico o -1 si está fuera de rango
+     */
+    public int blockAt(int logicalIndex) {
+        if (logicalIndex < 0 || logicalIndex >= totalBlocks) {
+            return -1;
+        }
+        int extent = extentFor(logicalIndex);
+        return starts[extent] + (logicalIndex - offsets[extent]);
+    }
+
+    private int extentFor(int logicalIndex) {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= logicalIndex) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Conserva solo los primeros {@code keepBlocks} bloques; los tramos descartados se agregan a
+     * {@code released}.
+     */
+    public void truncate(int keepBlocks, ExtentList released) {
+        if (keepBlocks >= totalBlocks) {
+            return;
+        }
+        if (keepBlocks <= 0) {
+            if (released != null) {
+                released.addAll(this);
+            }
+            clear();
+            return;
+        }
+        int extent = extentFor(keepBlocks - 1);
+        int kept = keepBlocks - offsets[extent];
+        if (released != null) {
+            released.add(starts[extent] + kept, lengths[extent] - kept);
+            for (int i = extent + 1; i < count; i++) {
+                released.add(starts[i], lengths[i]);
+            }
+        }
+        lengths[extent] = kept;
+        count = extent + 1;
+        totalBlocks = keepBlocks;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getStart(int extent) {
+        return starts[extent];
+    }
+
+    public int getLength(int extent) {
+        return lengths[extent];
+    }
+
+    public int getTotalBlocks() {
+        return totalBlocks;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int firstBlock() {
+        return count == 0 ? -1 : starts[0];
+    }
+
+    public int lastBlock() {
+        return count == 0 ? -1 : starts[count - 1] + lengths[count - 1] - 1;
+    }
+
+    public void clear() {
+        count = 0;
+        totalBlocks = 0;
+    }
+}
@@ -0,0 +1,36 @@
+package proyecto2so.storage;
+
+/**
+ * FIFO: los slots se reemplazan en el mismo orden en que se llenaron.
+ */
+final class FifoTracker implements ReplacementTracker {
+
+    private final int capacity;
+    private int pointer;
+
+    FifoTracker(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onLoad(int slot, int blockIndex) {
+        // El orden de llegada coincide con el orden de los slots
+    }
+
+    @Override
+    public void onHit(int slot) {
+        // FIFO ignora los aciertos
+    }
+
+    @Override
+    public int selectVictim(int incomingBlock) {
+        int victim = pointer;
+        pointer = (pointer + 1) % capacity;
+        return victim;
+    }
+
+    @Override
+    public void clear() {
+        pointer = 0;
+    }
+}
@@ -0,0 +1,75 @@
+package proyecto2so.storage;
+
+/**
+ * Count-min sketch de 4 filas con contadores saturados en 15 que estima cuántas veces se pidió
+ * cada bloque. Cada cierto número de incrementos todos los contadores se reducen a la mitad,
+ * de modo que la popularidad antigua envejece.
+ */
+final class FrequencySketch {
+
+    private static final int ROWS = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final byte[][] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        int width = 16;
+        while (width < expectedEntries) {
+            width <<= 1;
+        }
+        counters = new byte[ROWS][width];
+        mask = width - 1;
+        sampleSize = Math.max(16, 10 * expectedEntries);
+    }
+
+    private int indexOf(int blockIndex, int row) {
+        int h = (blockIndex + row) * SEEDS[row];
+        return (h ^ (h >>> 15)) & mask;
+    }
+
+    void increment(int blockIndex) {
+        boolean added = false;
+        for (int row = 0; row < ROWS; row++) {
+            int i = indexOf(blockIndex, row);
+            if (counters[row][i] < MAX_COUNT) {
+                counters[row][i]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            age();
+        }
+    }
+
+    int frequency(int blockIndex) {
+        int min = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            min = Math.min(min, counters[row][indexOf(blockIndex, row)]);
+        }
+        return min;
+    }
+
+    private void age() {
+        for (int row = 0; row < ROWS; row++) {
+            byte[] line = counters[row];
+            for (int i = 0; i < line.length; i++) {
+                line[i] = (byte) (line[i] >>> 1);
+            }
+        }
+        additions /= 2;
+    }
+
+    void clear() {
+        for (int row = 0; row < ROWS; row++) {
+            byte[] line = counters[row];
+            for (int i = 0; i < line.length; i++) {
+                line[i] = 0;
+            }
+        }
+        additions = 0;
+    }
+}
@@ -0,0 +1,75 @@
+package proyecto2so.storage;
+
+/**
+ * Lista LRU acotada de índices de bloque ya expulsados del buffer ("fantasmas"). Solo guarda el
+ * número de bloque, no sus datos; la usan 2Q y ARC para reconocer bloques vistos recientemente.
+ */
+final class GhostList {
+
+    private final int[] blocks;
+    private final int[] freeNodes;
+    private int freeCount;
+    private final IndexList order;
+    private final BlockIndexMap nodes;
+
+    GhostList(int capacity) {
+        int size = Math.max(1, capacity);
+        blocks = new int[size];
+        freeNodes = new int[size];
+        order = new IndexList(size);
+        nodes = new BlockIndexMap(size);
+        clear();
+    }
+
+    /**
+     * Registra el bloque como el fantasma más reciente, descartando el más antiguo si no hay lugar.
+     */
+    void add(int blockIndex) {
+        remove(blockIndex);
+        if (freeCount == 0) {
+            removeLast();
+        }
+        int node = freeNodes[--freeCount];
+        blocks[node] = blockIndex;
+        order.pushFront(node);
+        nodes.put(blockIndex, node);
+    }
+
+    /**
+     * @return true si el bloque estaba en la lista
+     */
+    boolean remove(int blockIndex) {
+        int node = nodes.get(blockIndex);
+        if (node == -1) {
+            return false;
+        }
+        nodes.remove(blockIndex);
+        order.remove(node);
+        freeNodes[freeCount++] = node;
+        return true;
+    }
+
+    boolean contains(int blockIndex) {
+        return nodes.get(blockIndex) != -1;
+    }
+
+    void removeLast() {
+        int node = order.peekLast();
+        if (node != -1) {
+            remove(blocks[node]);
+        }
+    }
+
+    int size() {
+        return order.size();
+    }
+
+    void clear() {
+        order.clear();
+        nodes.clear();
+        freeCount = 0;
+        for (int i = blocks.length - 1; i >= 0; i--) {
+            freeNodes[freeCount++] = i;
+        }
+    }
+}
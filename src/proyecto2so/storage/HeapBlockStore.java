@@ -0,0 +1,101 @@
+package proyecto2so.storage;
+
+/**
+ * Almacenamiento en memoria con arreglos paralelos por bloque. El contenido de cada bloque se
+ * reserva en la primera escritura. Es el respaldo por defecto y no sobrevive al proceso.
+ */
+public class HeapBlockStore implements BlockStore {
+
+    private final int blockSize;
+    private final boolean[] used;
+    private final int[] nextIndex;
+    private final String[] ownerId;
+    private final int[] length;
+    private final byte[][] data;
+
+    public HeapBlockStore(int capacity, int blockSize) {
+        this.blockSize = blockSize;
+        this.used = new boolean[capacity];
+        this.nextIndex = new int[capacity];
+        this.ownerId = new String[capacity];
+        this.length = new int[capacity];
+        this.data = new byte[capacity][];
+        for (int i = 0; i < capacity; i++) {
+            nextIndex[i] = -1;
+            ownerId[i] = "";
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return used.length;
+    }
+
+    @Override
+    public int blockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public boolean isFree(int index) {
+        return !used[index];
+    }
+
+    @Override
+    public void setFree(int index, boolean free) {
+        used[index] = !free;
+    }
+
+    @Override
+    public int getNextIndex(int index) {
+        return nextIndex[index];
+    }
+
+    @Override
+    public void setNextIndex(int index, int next) {
+        nextIndex[index] = next;
+    }
+
+    @Override
+    public String getOwnerId(int index) {
+        return ownerId[index];
+    }
+
+    @Override
+    public void setOwnerId(int index, String owner) {
+        ownerId[index] = owner == null ? "" : owner;
+    }
+
+    @Override
+    public int getLength(int index) {
+        return length[index];
+    }
+
+    @Override
+    public int read(int index, byte[] target, int offset) {
+        int count = length[index];
+        if (count > 0) {
+            System.arraycopy(data[index], 0, target, offset, count);
+        }
+        return count;
+    }
+
+    @Override
+    public void write(int index, byte[] source, int offset, int count) {
+        if (count > 0) {
+            if (data[index] == null) {
+                data[index] = new byte[blockSize];
+            }
+            System.arraycopy(source, offset, data[index], 0, count);
+        }
+        length[index] = count;
+    }
+
+    @Override
+    public void force() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,98 @@
+package proyecto2so.storage;
+
+/**
+ * Lista doblemente enlazada intrusiva sobre índices enteros [0, capacidad), sin nodos en el heap.
+ * La cabeza es el extremo más reciente y la cola el más antiguo.
+ */
+final class IndexList {
+
+    private final int[] prev;
+    private final int[] next;
+    private final boolean[] linked;
+    private int head = -1;
+    private int tail = -1;
+    private int size;
+
+    IndexList(int capacity) {
+        prev = new int[capacity];
+        next = new int[capacity];
+        linked = new boolean[capacity];
+    }
+
+    void pushFront(int index) {
+        prev[index] = -1;
+        next[index] = head;
+        if (head != -1) {
+            prev[head] = index;
+        } else {
+            tail = index;
+        }
+        head = index;
+        linked[index] = true;
+        size++;
+    }
+
+    void remove(int index) {
+        if (!linked[index]) {
+            return;
+        }
+        int p = prev[index];
+        int n = next[index];
+        if (p != -1) {
+            next[p] = n;
+        } else {
+            head = n;
+        }
+        if (n != -1) {
+            prev[n] = p;
+        } else {
+            tail = p;
+        }
+        linked[index] = false;
+        size--;
+    }
+
+    void moveToFront(int index) {
+        if (head == index) {
+            return;
+        }
+        remove(index);
+        pushFront(index);
+    }
+
+    /**
+     * Quita y devuelve el elemento más antiguo, o -1 si la lista está vacía.
+     */
+    int removeLast() {
+        int last = tail;
+        if (last != -1) {
+            remove(last);
+        }
+        return last;
+    }
+
+    int peekLast() {
+        return tail;
+    }
+
+    boolean contains(int index) {
+        return linked[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        for (int i = 0; i < linked.length; i++) {
+            linked[i] = false;
+        }
+        head = -1;
+        tail = -1;
+        size = 0;
+    }
+}
@@ -0,0 +1,164 @@
+package proyecto2so.storage;
+
+/**
+ * LFU en O(1): los slots se agrupan en cubetas por frecuencia de uso, enlazadas en orden
+ * creciente. Un acierto mueve el slot a la cubeta siguiente y la víctima sale de la primera;
+ * dentro de una cubeta se desempata por antigüedad.
+ */
+final class LfuTracker implements ReplacementTracker {
+
+    // Cubetas: a lo sumo una por slot más una de reserva
+    private final int[] bucketFrequency;
+    private final int[] bucketPrev;
+    private final int[] bucketNext;
+    private final int[] bucketHead;
+    private final int[] bucketTail;
+    private final int[] freeBuckets;
+    private int freeBucketCount;
+    private int firstBucket = -1;
+
+    // Slots: cubeta actual y enlaces dentro de ella (cabeza = más reciente)
+    private final int[] slotBucket;
+    private final int[] slotPrev;
+    private final int[] slotNext;
+
+    LfuTracker(int capacity) {
+        int buckets = capacity + 1;
+        bucketFrequency = new int[buckets];
+        bucketPrev = new int[buckets];
+        bucketNext = new int[buckets];
+        bucketHead = new int[buckets];
+        bucketTail = new int[buckets];
+        freeBuckets = new int[buckets];
+        slotBucket = new int[capacity];
+        slotPrev = new int[capacity];
+        slotNext = new int[capacity];
+        clear();
+    }
+
+    @Override
+    public void onLoad(int slot, int blockIndex) {
+        int bucket = firstBucket;
+        if (bucket == -1 || bucketFrequency[bucket] != 1) {
+            bucket = newBucket(1, -1, firstBucket);
+        }
+        link(slot, bucket);
+    }
+
+    @Override
+    public void onHit(int slot) {
+        int bucket = slotBucket[slot];
+        if (bucket == -1) {
+            return;
+        }
+        int frequency = bucketFrequency[bucket] + 1;
+        int target = bucketNext[bucket];
+        if (target == -1 || bucketFrequency[target] != frequency) {
+            target = newBucket(frequency, bucket, target);
+        }
+        unlink(slot);
+        link(slot, target);
+    }
+
+    /**
+     * Pone el slot directamente en la cubeta de su frecuencia en vez de repetir los aciertos.
+     */
+    @Override
+    public void onRestore(int slot, int blockIndex, int hitCount) {
+        int frequency = Math.max(1, hitCount);
+        int before = -1;
+        int bucket = firstBucket;
+        while (bucket != -1 && bucketFrequency[bucket] < frequency) {
+            before = bucket;
+            bucket = bucketNext[bucket];
+        }
+        if (bucket == -1 || bucketFrequency[bucket] != frequency) {
+            bucket = newBucket(frequency, before, bucket);
+        }
+        link(slot, bucket);
+    }
+
+    @Override
+    public int selectVictim(int incomingBlock) {
+        int victim = bucketTail[firstBucket];
+        unlink(victim);
+        return victim;
+    }
+
+    @Override
+    public void clear() {
+        freeBucketCount = 0;
+        for (int i = bucketFrequency.length - 1; i >= 0; i--) {
+            freeBuckets[freeBucketCount++] = i;
+        }
+        firstBucket = -1;
+        for (int i = 0; i < slotBucket.length; i++) {
+            slotBucket[i] = -1;
+        }
+    }
+
+    private int newBucket(int frequency, int before, int after) {
+        int bucket = freeBuckets[--freeBucketCount];
+        bucketFrequency[bucket] = frequency;
+        bucketHead[bucket] = -1;
+        bucketTail[bucket] = -1;
+        bucketPrev[bucket] = before;
+        bucketNext[bucket] = after;
+        if (before != -1) {
+            bucketNext[before] = bucket;
+        } else {
+            firstBucket = bucket;
+        }
+        if (after != -1) {
+            bucketPrev[after] = bucket;
+        }
+        return bucket;
+    }
+
+    private void link(int slot, int bucket) {
+        int head = bucketHead[bucket];
+        slotBucket[slot] = bucket;
+        slotPrev[slot] = -1;
+        slotNext[slot] = head;
+        if (head != -1) {
+            slotPrev[head] = slot;
+        } else {
+            bucketTail[bucket] = slot;
+        }
+        bucketHead[bucket] = slot;
+    }
+
+    private void unlink(int slot) {
+        int bucket = slotBucket[slot];
+        int p = slotPrev[slot];
+        int n = slotNext[slot];
+        if (p != -1) {
+            slotNext[p] = n;
+        } else {
+            bucketHead[bucket] = n;
+        }
+        if (n != -1) {
+            slotPrev[n] = p;
+        } else {
+            bucketTail[bucket] = p;
+        }
+        slotBucket[slot] = -1;
+        if (bucketHead[bucket] == -1) {
+            releaseBucket(bucket);
+        }
+    }
+
+    private void releaseBucket(int bucket) {
+        int p = bucketPrev[bucket];
+        int n = bucketNext[bucket];
+        if (p != -1) {
+            bucketNext[p] = n;
+        } else {
+            firstBucket = n;
+        }
+        if (n != -1) {
+            bucketPrev[n] = p;
+        }
+        freeBuckets[freeBucketCount++] = bucket;
+    }
+}
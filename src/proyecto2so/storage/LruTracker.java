@@ -0,0 +1,33 @@
+package proyecto2so.storage;
+
+/**
+ * LRU en O(1): lista intrusiva de slots ordenada por último acceso.
+ */
+final class LruTracker implements ReplacementTracker {
+
+    private final IndexList recency;
+
+    LruTracker(int capacity) {
+        this.recency = new IndexList(capacity);
+    }
+
+    @Override
+    public void onLoad(int slot, int blockIndex) {
+        recency.pushFront(slot);
+    }
+
+    @Override
+    public void onHit(int slot) {
+        recency.moveToFront(slot);
+    }
+
+    @Override
+    public int selectVictim(int incomingBlock) {
+        return recency.removeLast();
+    }
+
+    @Override
+    public void clear() {
+        recency.clear();
+    }
+}
@@ -0,0 +1,217 @@
+package proyecto2so.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Almacenamiento fuera del heap sobre un archivo mapeado con {@link FileChannel#map}. El archivo
+ * tiene una página de cabecera (firma, versión, capacidad y tamaño de bloque), una región de
+ * cabeceras de bloque de {@value #HEADER_BYTES} bytes y la región de contenidos. Un archivo nuevo
+ * se crea disperso y en ceros, que ya equivale a un disco vacío, así que abrirlo es inmediato y el
+ * contenido persiste entre ejecuciones. Cada región se mapea en segmentos de a lo sumo 1 GiB
+ * porque un solo mapeo no puede superar 2 GiB.
+ */
+public class MappedBlockStore implements BlockStore {
+
+    private static final long MAGIC = 0x5032534F4449534BL; // "P2SODISK"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 4096;
+    private static final int SEGMENT_BYTES = 1 << 30;
+
+    // Cabecera de bloque: bandera, siguiente (+1 para que 0 sea "sin siguiente"), longitud y dueño
+    static final int HEADER_BYTES = 64;
+    private static final int FLAGS_OFFSET = 0;
+    private static final int NEXT_OFFSET = 4;
+    private static final int LENGTH_OFFSET = 8;
+    private static final int OWNER_LENGTH_OFFSET = 12;
+    private static final int OWNER_OFFSET = 16;
+    private static final int OWNER_MAX_BYTES = HEADER_BYTES - OWNER_OFFSET;
+    private static final byte FLAG_USED = 1;
+
+    private final FileChannel channel;
+    private final int capacity;
+    private final int blockSize;
+    private final int headersPerSegment;
+    private final int blocksPerSegment;
+    private final MappedByteBuffer[] headerSegments;
+    private final MappedByteBuffer[] dataSegments;
+
+    private MappedBlockStore(FileChannel channel, int capacity, int blockSize) throws IOException {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.blockSize = blockSize;
+        this.headersPerSegment = SEGMENT_BYTES / HEADER_BYTES;
+        this.blocksPerSegment = SEGMENT_BYTES / blockSize;
+        long headerRegion = FILE_HEADER_BYTES;
+        long dataRegion = align(headerRegion + (long) capacity * HEADER_BYTES);
+        this.headerSegments = mapRegion(headerRegion, capacity, headersPerSegment, HEADER_BYTES);
+        this.dataSegments = mapRegion(dataRegion, capacity, blocksPerSegment, blockSize);
+    }
+
+    /**
+     * Abre el archivo de disco o lo crea si no existe. Un archivo existente debe tener la misma
+     * capacidad y tamaño de bloque.
+     */
+    public static MappedBlockStore open(Path file, int capacity, int blockSize) throws IOException {
+        if (capacity <= 0 || blockSize <= 0 || blockSize > SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Geometria de disco invalida: " + capacity + " x " + blockSize);
+        }
+        boolean exists = Files.exists(file) && Files.size(file) >= FILE_HEADER_BYTES;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(20);
+            if (exists) {
+                channel.read(header, 0);
+                header.flip();
+                if (header.remaining() < 20 || header.getLong() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("No es un archivo de disco valido: " + file);
+                }
+                int storedCapacity = header.getInt();
+                int storedBlockSize = header.getInt();
+                if (storedCapacity != capacity || storedBlockSize != blockSize) {
+                    throw new IOException("El archivo de disco tiene " + storedCapacity + " bloques de "
+                            + storedBlockSize + " bytes");
+                }
+            } else {
+                header.putLong(MAGIC).putInt(VERSION).putInt(capacity).putInt(blockSize).flip();
+                channel.write(header, 0);
+            }
+            return new MappedBlockStore(channel, capacity, blockSize);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private MappedByteBuffer[] mapRegion(long regionStart, int records, int perSegment, int recordBytes)
+            throws IOException {
+        int segments = (records + perSegment - 1) / perSegment;
+        MappedByteBuffer[] mapped = new MappedByteBuffer[segments];
+        for (int s = 0; s < segments; s++) {
+            int inSegment = Math.min(perSegment, records - s * perSegment);
+            long position = regionStart + (long) s * perSegment * recordBytes;
+            mapped[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) inSegment * recordBytes);
+        }
+        return mapped;
+    }
+
+    private static long align(long position) {
+        return (position + FILE_HEADER_BYTES - 1) / FILE_HEADER_BYTES * FILE_HEADER_BYTES;
+    }
+
+    private MappedByteBuffer headerSegment(int index) {
+        return headerSegments[index / headersPerSegment];
+    }
+
+    private int headerPosition(int index) {
+        return (index % headersPerSegment) * HEADER_BYTES;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int blockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public boolean isFree(int index) {
+        return headerSegment(index).get(headerPosition(index) + FLAGS_OFFSET) != FLAG_USED;
+    }
+
+    @Override
+    public void setFree(int index, boolean free) {
+        headerSegment(index).put(headerPosition(index) + FLAGS_OFFSET, free ? 0 : FLAG_USED);
+    }
+
+    @Override
+    public int getNextIndex(int index) {
+        return headerSegment(index).getInt(headerPosition(index) + NEXT_OFFSET) - 1;
+    }
+
+    @Override
+    public void setNextIndex(int index, int nextIndex) {
+        headerSegment(index).putInt(headerPosition(index) + NEXT_OFFSET, nextIndex + 1);
+    }
+
+    @Override
+    public String getOwnerId(int index) {
+        MappedByteBuffer segment = headerSegment(index);
+        int position = headerPosition(index);
+        int count = segment.getShort(position + OWNER_LENGTH_OFFSET);
+        if (count <= 0) {
+            return "";
+        }
+        byte[] bytes = new byte[Math.min(count, OWNER_MAX_BYTES)];
+        segment.get(position + OWNER_OFFSET, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Guarda el dueño en el campo fijo de la cabecera; si no cabe se recorta sin partir un
+     * carácter UTF-8.
+     */
+    @Override
+    public void setOwnerId(int index, String ownerId) {
+        byte[] bytes = ownerId == null ? new byte[0] : ownerId.getBytes(StandardCharsets.UTF_8);
+        int count = bytes.length;
+        if (count > OWNER_MAX_BYTES) {
+            count = OWNER_MAX_BYTES;
+            while (count > 0 && (bytes[count] & 0xC0) == 0x80) {
+                count--;
+            }
+        }
+        MappedByteBuffer segment = headerSegment(index);
+        int position = headerPosition(index);
+        segment.putShort(position + OWNER_LENGTH_OFFSET, (short) count);
+        segment.put(position + OWNER_OFFSET, bytes, 0, count);
+    }
+
+    @Override
+    public int getLength(int index) {
+        return headerSegment(index).getInt(headerPosition(index) + LENGTH_OFFSET);
+    }
+
+    @Override
+    public int read(int index, byte[] target, int offset) {
+        int count = getLength(index);
+        if (count > 0) {
+            dataSegments[index / blocksPerSegment].get((index % blocksPerSegment) * blockSize, target, offset, count);
+        }
+        return count;
+    }
+
+    @Override
+    public void write(int index, byte[] source, int offset, int count) {
+        if (count > 0) {
+            dataSegments[index / blocksPerSegment].put((index % blocksPerSegment) * blockSize, source, offset, count);
+        }
+        headerSegment(index).putInt(headerPosition(index) + LENGTH_OFFSET, count);
+    }
+
+    @Override
+    public void force() {
+        for (int s = 0; s < headerSegments.length; s++) {
+            headerSegments[s].force();
+        }
+        for (int s = 0; s < dataSegments.length; s++) {
+            dataSegments[s].force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
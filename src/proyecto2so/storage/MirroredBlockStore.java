@@ -0,0 +1,101 @@
+package proyecto2so.storage;
+
+import java.io.IOException;
+
+/**
+ * Vista lógica de un {@link MirroredVolume}: cada cambio se aplica a todas las réplicas y las
+ * consultas se responden desde la primera, porque todas guardan lo mismo.
+ */
+class MirroredBlockStore implements BlockStore {
+
+    private final BlockStore[] replicas;
+
+    MirroredBlockStore(BlockStore[] replicas) {
+        this.replicas = replicas;
+    }
+
+    @Override
+    public int capacity() {
+        return replicas[0].capacity();
+    }
+
+    @Override
+    public int blockSize() {
+        return replicas[0].blockSize();
+    }
+
+    @Override
+    public boolean isFree(int index) {
+        return replicas[0].isFree(index);
+    }
+
+    @Override
+    public void setFree(int index, boolean free) {
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i].setFree(index, free);
+        }
+    }
+
+    @Override
+    public int getNextIndex(int index) {
+        return replicas[0].getNextIndex(index);
+    }
+
+    @Override
+    public void setNextIndex(int index, int nextIndex) {
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i].setNextIndex(index, nextIndex);
+        }
+    }
+
+    @Override
+    public String getOwnerId(int index) {
+        return replicas[0].getOwnerId(index);
+    }
+
+    @Override
+    public void setOwnerId(int index, String ownerId) {
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i].setOwnerId(index, ownerId);
+        }
+    }
+
+    @Override
+    public int getLength(int index) {
+        return replicas[0].getLength(index);
+    }
+
+    @Override
+    public int read(int index, byte[] target, int offset) {
+        return replicas[0].read(index, target, offset);
+    }
+
+    @Override
+    public void write(int index, byte[] source, int offset, int count) {
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i].write(index, source, offset, count);
+        }
+    }
+
+    @Override
+    public void force() {
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i].force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (int i = 0; i < replicas.length; i++) {
+            try {
+                replicas[i].close();
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package proyecto2so.storage;
+
+/**
+ * Volumen RAID-1: todos los discos guardan una copia completa de cada bloque. El disco lógico
+ * escribe en todas las réplicas a la vez, y el motor de E/S manda cada lectura a una sola réplica
+ * (ver {@link #selectReplica}), así que con varias réplicas los cabezales se reparten las
+ * lecturas y se atienden en paralelo.
+ * <p>
+ * Mandar cada lectura al cabezal más cercano solo acorta el recorrido por solicitud con
+ * planificadores que no ordenan por bloque, como FIFO. SSTF y las variantes de SCAN ya eligen la
+ * solicitud más cercana de su cola; al repartir las lecturas cada cola queda con la mitad de
+ * solicitudes sobre todo el disco, más separadas entre sí, y el recorrido por solicitud sube
+ * (con SSTF, de unos 100 bloques con un disco a unos 200 con dos). Con ellos el espejo suma
+ * rendimiento por atender en paralelo, no menos recorrido.
+ */
+public class MirroredVolume implements Volume {
+
+    private final Disk[] replicas;
+    private final Disk logical;
+    private ReplicaSelection selection = ReplicaSelection.NEAREST_HEAD;
+
+    public MirroredVolume(Disk[] replicas) {
+        if (replicas.length == 0) {
+            throw new IllegalArgumentException("El volumen necesita al menos un disco");
+        }
+        for (int i = 1; i < replicas.length; i++) {
+            if (replicas[i].capacity() != replicas[0].capacity()
+                    || replicas[i].getBlockSize() != replicas[0].getBlockSize()) {
+                throw new IllegalArgumentException("Los discos del volumen deben tener la misma geometria");
+            }
+        }
+        this.replicas = replicas.clone();
+        if (replicas.length == 1) {
+            this.logical = replicas[0];
+        } else {
+            BlockStore[] stores = new BlockStore[replicas.length];
+            for (int i = 0; i < replicas.length; i++) {
+                stores[i] = replicas[i].getStore();
+            }
+            this.logical = new Disk(new MirroredBlockStore(stores));
+        }
+    }
+
+    /**
+     * Espejo en memoria de {@code diskCount} discos de {@code blocks} bloques.
+     */
+    public static MirroredVolume inMemory(int diskCount, int blocks, int blockSize) {
+        Disk[] disks = new Disk[Math.max(1, diskCount)];
+        for (int i = 0; i < disks.length; i++) {
+            disks[i] = new Disk(new HeapBlockStore(blocks, blockSize));
+        }
+        return new MirroredVolume(disks);
+    }
+
+    public ReplicaSelection getSelection() {
+        return selection;
+    }
+
+    public void setSelection(ReplicaSelection selection) {
+        this.selection = selection == null ? ReplicaSelection.NEAREST_HEAD : selection;
+    }
+
+    /**
+     * Réplica que debe atender una lectura de {@code block}. Con {@code NEAREST_HEAD} gana el
+     * cabezal más cercano y el empate lo decide la cola más corta; con {@code LEAST_LOADED} es
+     * al revés. Solo mira el cabezal, no lo encolado, así que el ahorro de recorrido se nota con
+     * FIFO y no con planificadores que ordenan por bloque (ver la clase).
+     *
+     * @param queueDepths solicitudes pendientes en cada réplica
+     */
+    public int selectReplica(int block, int[] queueDepths) {
+        int best = 0;
+        long bestKey = Long.MAX_VALUE;
+        for (int i = 0; i < replicas.length; i++) {
+            long distance = Math.abs(replicas[i].getHeadPosition() - block);
+            long depth = queueDepths[i];
+            long key = selection == ReplicaSelection.NEAREST_HEAD
+                    ? (distance << 32) | depth
+                    : (depth << 32) | distance;
+            if (key < bestKey) {
+                bestKey = key;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Disk getLogicalDisk() {
+        return logical;
+    }
+
+    @Override
+    public int getDiskCount() {
+        return replicas.length;
+    }
+
+    @Override
+    public Disk getMember(int index) {
+        return replicas[index];
+    }
+
+    @Override
+    public int memberOf(int logicalBlock) {
+        return 0;
+    }
+
+    @Override
+    public int physicalBlock(int logicalBlock) {
+        return logicalBlock;
+    }
+
+    @Override
+    public int logicalBlock(int member, int physicalBlock) {
+        return physicalBlock;
+    }
+
+    @Override
+    public boolean isMirrored() {
+        return true;
+    }
+
+    @Override
+    public void force() {
+        logical.force();
+    }
+}
@@ -0,0 +1,34 @@
+package proyecto2so.storage;
+
+/**
+ * Estado interno de una política de reemplazo: registra cargas y aciertos por posición del buffer
+ * y elige la víctima cuando el buffer está lleno.
+ */
+interface ReplacementTracker {
+
+    /**
+     * El slot acaba de recibir el bloque indicado.
+     */
+    void onLoad(int slot, int blockIndex);
+
+    /**
+     * El bloque del slot fue solicitado nuevamente.
+     */
+    void onHit(int slot);
+
+    /**
+     * Reconstruye un slot que ya estaba cargado al cambiar de política. Los slots llegan del
+     * menos al más recientemente usado y {@code hitCount} cuenta sus usos desde que se cargó; por
+     * omisión solo se registra la carga.
+     */
+    default void onRestore(int slot, int blockIndex, int hitCount) {
+        onLoad(slot, blockIndex);
+    }
+
+    /**
+     * Elige y desvincula el slot que se reemplazará para alojar {@code incomingBlock}.
+     */
+    int selectVictim(int incomingBlock);
+
+    void clear();
+}
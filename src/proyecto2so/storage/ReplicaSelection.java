@@ -0,0 +1,15 @@
+package proyecto2so.storage;
+
+/**
+ * Criterio para elegir la réplica que atiende una lectura en un volumen espejado.
+ */
+public enum ReplicaSelection {
+    /**
+     * Cabezal más cercano; acorta el recorrido con FIFO, no con SSTF ni SCAN.
+     */
+    NEAREST_HEAD,
+    /**
+     * Cola más corta; reparte la carga sin mirar el cabezal.
+     */
+    LEAST_LOADED
+}
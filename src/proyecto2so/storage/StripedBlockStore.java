@@ -0,0 +1,110 @@
+package proyecto2so.storage;
+
+import java.io.IOException;
+
+/**
+ * Vista lógica de un {@link StripedVolume}: traduce cada índice lógico al disco miembro y al
+ * bloque físico que le corresponden y delega en su almacenamiento.
+ */
+class StripedBlockStore implements BlockStore {
+
+    private final BlockStore[] members;
+    private final int stripeBlocks;
+    private final int capacity;
+
+    /**
+     * Recibe la geometría de las franjas en vez del volumen, que aún se está construyendo, y la
+     * traduce con las mismas cuentas estáticas de {@link StripedVolume}.
+     */
+    StripedBlockStore(BlockStore[] members, int stripeBlocks, int capacity) {
+        this.members = members;
+        this.stripeBlocks = stripeBlocks;
+        this.capacity = capacity;
+    }
+
+    private BlockStore memberStore(int index) {
+        return members[StripedVolume.memberOf(index, stripeBlocks, members.length)];
+    }
+
+    private int physicalBlock(int index) {
+        return StripedVolume.physicalBlock(index, stripeBlocks, members.length);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int blockSize() {
+        return members[0].blockSize();
+    }
+
+    @Override
+    public boolean isFree(int index) {
+        return memberStore(index).isFree(physicalBlock(index));
+    }
+
+    @Override
+    public void setFree(int index, boolean free) {
+        memberStore(index).setFree(physicalBlock(index), free);
+    }
+
+    @Override
+    public int getNextIndex(int index) {
+        // Los enlaces se guardan como índices lógicos
+        return memberStore(index).getNextIndex(physicalBlock(index));
+    }
+
+    @Override
+    public void setNextIndex(int index, int nextIndex) {
+        memberStore(index).setNextIndex(physicalBlock(index), nextIndex);
+    }
+
+    @Override
+    public String getOwnerId(int index) {
+        return memberStore(index).getOwnerId(physicalBlock(index));
+    }
+
+    @Override
+    public void setOwnerId(int index, String ownerId) {
+        memberStore(index).setOwnerId(physicalBlock(index), ownerId);
+    }
+
+    @Override
+    public int getLength(int index) {
+        return memberStore(index).getLength(physicalBlock(index));
+    }
+
+    @Override
+    public int read(int index, byte[] target, int offset) {
+        return memberStore(index).read(physicalBlock(index), target, offset);
+    }
+
+    @Override
+    public void write(int index, byte[] source, int offset, int count) {
+        memberStore(index).write(physicalBlock(index), source, offset, count);
+    }
+
+    @Override
+    public void force() {
+        for (int i = 0; i < members.length; i++) {
+            members[i].force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (int i = 0; i < members.length; i++) {
+            try {
+                members[i].close();
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
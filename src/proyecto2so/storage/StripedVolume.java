@@ -0,0 +1,120 @@
+package proyecto2so.storage;
+
+/**
+ * Volumen RAID-0: reparte los bloques lógicos entre varios discos en franjas de
+ * {@code stripeBlocks} bloques consecutivos, de modo que el bloque lógico {@code b} cae en el
+ * disco {@code (b / stripeBlocks) % n}. El sistema de archivos, el asignador y el buffer trabajan
+ * sobre {@link #getLogicalDisk()}, que lleva el mapa de espacio libre de todo el volumen; cada
+ * disco miembro aporta su almacenamiento y su propio cabezal, que mueve su hilo de disco.
+ * Con un solo disco el disco lógico es el propio miembro.
+ */
+public class StripedVolume implements Volume {
+
+    private final Disk[] members;
+    private final int stripeBlocks;
+    private final int stripeRowBlocks;
+    private final Disk logical;
+
+    public StripedVolume(Disk disk) {
+        this(new Disk[]{disk}, 1);
+    }
+
+    /**
+     * Los miembros deben tener igual capacidad y tamaño de bloque. Si la capacidad de un miembro
+     * no es múltiplo de la franja, los bloques sobrantes de cada miembro no se usan.
+     */
+    public StripedVolume(Disk[] members, int stripeBlocks) {
+        if (members.length == 0) {
+            throw new IllegalArgumentException("El volumen necesita al menos un disco");
+        }
+        for (int i = 1; i < members.length; i++) {
+            if (members[i].capacity() != members[0].capacity()
+                    || members[i].getBlockSize() != members[0].getBlockSize()) {
+                throw new IllegalArgumentException("Los discos del volumen deben tener la misma geometria");
+            }
+        }
+        this.members = members.clone();
+        this.stripeBlocks = Math.max(1, Math.min(stripeBlocks, members[0].capacity()));
+        this.stripeRowBlocks = this.stripeBlocks * members.length;
+        if (members.length == 1) {
+            this.logical = members[0];
+        } else {
+            BlockStore[] stores = new BlockStore[members.length];
+            for (int i = 0; i < members.length; i++) {
+                stores[i] = members[i].getStore();
+            }
+            int usable = members[0].capacity() / this.stripeBlocks * this.stripeBlocks;
+            this.logical = new Disk(new StripedBlockStore(stores, this.stripeBlocks, usable * members.length));
+        }
+    }
+
+    /**
+     * Volumen en memoria de {@code diskCount} discos de {@code blocksPerDisk} bloques.
+     */
+    public static StripedVolume inMemory(int diskCount, int blocksPerDisk, int blockSize, int stripeBlocks) {
+        Disk[] disks = new Disk[Math.max(1, diskCount)];
+        for (int i = 0; i < disks.length; i++) {
+            disks[i] = new Disk(new HeapBlockStore(blocksPerDisk, blockSize));
+        }
+        return new StripedVolume(disks, stripeBlocks);
+    }
+
+    @Override
+    public Disk getLogicalDisk() {
+        return logical;
+    }
+
+    @Override
+    public int getDiskCount() {
+        return members.length;
+    }
+
+    @Override
+    public Disk getMember(int index) {
+        return members[index];
+    }
+
+    public int getStripeBlocks() {
+        return stripeBlocks;
+    }
+
+    @Override
+    public int memberOf(int logicalBlock) {
+        return memberOf(logicalBlock, stripeBlocks, members.length);
+    }
+
+    @Override
+    public int physicalBlock(int logicalBlock) {
+        return physicalBlock(logicalBlock, stripeBlocks, members.length);
+    }
+
+    /**
+     * Disco miembro del bloque lógico {@code block} con franjas de {@code stripeBlocks} bloques
+     * sobre {@code memberCount} discos. Lo comparte con {@link StripedBlockStore}.
+     */
+    static int memberOf(int block, int stripeBlocks, int memberCount) {
+        return (block / stripeBlocks) % memberCount;
+    }
+
+    /**
+     * Bloque físico del bloque lógico {@code block} dentro de su disco miembro.
+     */
+    static int physicalBlock(int block, int stripeBlocks, int memberCount) {
+        return block / (stripeBlocks * memberCount) * stripeBlocks + block % stripeBlocks;
+    }
+
+    @Override
+    public int logicalBlock(int member, int physicalBlock) {
+        return physicalBlock / stripeBlocks * stripeRowBlocks + member * stripeBlocks + physicalBlock % stripeBlocks;
+    }
+
+    @Override
+    public boolean isMirrored() {
+        return false;
+    }
+
+    @Override
+    public void force() {
+        logical.force();
+    }
+}
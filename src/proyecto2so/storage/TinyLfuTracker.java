@@ -0,0 +1,90 @@
+package proyecto2so.storage;
+
+/**
+ * W-TinyLFU: los bloques nuevos entran a una ventana LRU pequeña (~1% del buffer); al salir de
+ * ella compiten contra la víctima del área principal (SLRU con segmentos de prueba y protegido)
+ * y solo ingresan si el sketch de frecuencias estima que son más populares que esa víctima.
+ */
+final class TinyLfuTracker implements ReplacementTracker {
+
+    private final int[] slotBlock;
+    private final IndexList window;
+    private final IndexList probation;
+    private final IndexList protectedSegment;
+    private final FrequencySketch sketch;
+    private final int windowTarget;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+
+    TinyLfuTracker(int capacity) {
+        slotBlock = new int[capacity];
+        window = new IndexList(capacity);
+        probation = new IndexList(capacity);
+        protectedSegment = new IndexList(capacity);
+        sketch = new FrequencySketch(capacity);
+        windowTarget = Math.max(1, capacity / 100);
+        mainCapacity = capacity - windowTarget;
+        protectedCapacity = mainCapacity * 4 / 5;
+    }
+
+    @Override
+    public void onLoad(int slot, int blockIndex) {
+        slotBlock[slot] = blockIndex;
+        sketch.increment(blockIndex);
+        window.pushFront(slot);
+    }
+
+    @Override
+    public void onHit(int slot) {
+        sketch.increment(slotBlock[slot]);
+        if (window.contains(slot)) {
+            window.moveToFront(slot);
+        } else if (protectedSegment.contains(slot)) {
+            protectedSegment.moveToFront(slot);
+        } else if (probation.contains(slot)) {
+            probation.remove(slot);
+            protectedSegment.pushFront(slot);
+            if (protectedSegment.size() > protectedCapacity) {
+                probation.pushFront(protectedSegment.removeLast());
+            }
+        }
+    }
+
+    @Override
+    public int selectVictim(int incomingBlock) {
+        // Mientras el área principal tenga lugar, la ventana le cede sus bloques sin desalojar
+        while (window.size() > windowTarget && mainSize() < mainCapacity) {
+            probation.pushFront(window.removeLast());
+        }
+        if (window.isEmpty()) {
+            return evictMain();
+        }
+        int candidate = window.removeLast();
+        if (mainSize() == 0) {
+            return candidate;
+        }
+        int mainVictim = probation.isEmpty() ? protectedSegment.peekLast() : probation.peekLast();
+        if (sketch.frequency(slotBlock[candidate]) > sketch.frequency(slotBlock[mainVictim])) {
+            evictMain();
+            probation.pushFront(candidate);
+            return mainVictim;
+        }
+        return candidate;
+    }
+
+    private int evictMain() {
+        return probation.isEmpty() ? protectedSegment.removeLast() : probation.removeLast();
+    }
+
+    private int mainSize() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    @Override
+    public void clear() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        sketch.clear();
+    }
+}
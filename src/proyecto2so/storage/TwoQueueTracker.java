@@ -0,0 +1,58 @@
+package proyecto2so.storage;
+
+/**
+ * 2Q: los bloques nuevos entran a una cola FIFO corta (A1in); al salir de ella se recuerdan en
+ * una lista fantasma (A1out) y solo si se vuelven a pedir ingresan a la cola LRU principal (Am).
+ * Un recorrido secuencial pasa por A1in sin desplazar los bloques calientes de Am.
+ */
+final class TwoQueueTracker implements ReplacementTracker {
+
+    private final int[] slotBlock;
+    private final IndexList recentIn;
+    private final IndexList main;
+    private final GhostList recentOut;
+    private final int recentInTarget;
+
+    TwoQueueTracker(int capacity) {
+        slotBlock = new int[capacity];
+        recentIn = new IndexList(capacity);
+        main = new IndexList(capacity);
+        recentOut = new GhostList(Math.max(1, capacity / 2));
+        recentInTarget = Math.max(1, capacity / 4);
+    }
+
+    @Override
+    public void onLoad(int slot, int blockIndex) {
+        slotBlock[slot] = blockIndex;
+        if (recentOut.remove(blockIndex)) {
+            main.pushFront(slot);
+        } else {
+            recentIn.pushFront(slot);
+        }
+    }
+
+    @Override
+    public void onHit(int slot) {
+        if (main.contains(slot)) {
+            main.moveToFront(slot);
+        }
+        // Los aciertos en A1in no promueven: se asumen correlacionados con la primera referencia
+    }
+
+    @Override
+    public int selectVictim(int incomingBlock) {
+        if (recentIn.size() > recentInTarget || main.isEmpty()) {
+            int victim = recentIn.removeLast();
+            recentOut.add(slotBlock[victim]);
+            return victim;
+        }
+        return main.removeLast();
+    }
+
+    @Override
+    public void clear() {
+        recentIn.clear();
+        main.clear();
+        recentOut.clear();
+    }
+}
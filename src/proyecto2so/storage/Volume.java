@@ -0,0 +1,37 @@
+package proyecto2so.storage;
+
+/**
+ * Conjunto de discos que el sistema de archivos ve como un único {@link #getLogicalDisk()}.
+ * Cada disco miembro tiene su propio cabezal; el volumen indica en qué disco y bloque físico
+ * vive cada bloque lógico.
+ */
+public interface Volume {
+
+    Disk getLogicalDisk();
+
+    int getDiskCount();
+
+    Disk getMember(int index);
+
+    /**
+     * Disco que guarda el bloque lógico; en un espejo, la réplica principal.
+     */
+    int memberOf(int logicalBlock);
+
+    /**
+     * Índice del bloque lógico dentro de un disco miembro.
+     */
+    int physicalBlock(int logicalBlock);
+
+    /**
+     * Bloque lógico que corresponde al bloque físico de un disco miembro.
+     */
+    int logicalBlock(int member, int physicalBlock);
+
+    /**
+     * true si todos los discos guardan una copia de cada bloque.
+     */
+    boolean isMirrored();
+
+    void force();
+}
@@ -23,7 +23,7 @@ public class BufferTableModel extends AbstractTableModel {
 
     @Override
     public int getColumnCount() {
-        return 4;
+        return 5;
     }
 
     @Override
@@ -42,8 +42,10 @@ public class BufferTableModel extends AbstractTableModel {
                 return slot.getData();
             case 2:
                 return slot.getLastAccessTick();
-            default:
+            case 3:
                 return slot.getHitCount();
+            default:
+                return slot.isDirty() ? "Si" : "No";
         }
     }
 
@@ -56,8 +58,10 @@ public class BufferTableModel extends AbstractTableModel {
                 return "Datos";
             case 2:
                 return "Ultimo";
-            default:
+            case 3:
                 return "Hits";
+            default:
+                return "Sucio";
         }
     }
 }
@@ -18,29 +18,42 @@ public class DiskPanel extends JPanel {
         setBackground(Color.DARK_GRAY);
     }
 
+    // Con discos grandes cada celda agrupa un rango de bloques para no pintar millones de celdas
+    private static final int MAX_CELLS = 4096;
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        DiskBlock[] blocks = disk.getBlocks();
-        int columns = 16;
-        int rows = (int) Math.ceil(blocks.length / (double) columns);
+        int capacity = disk.capacity();
+        int blocksPerCell = (capacity + MAX_CELLS - 1) / MAX_CELLS;
+        int cells = (capacity + blocksPerCell - 1) / blocksPerCell;
+        int columns = cells <= 256 ? 16 : 64;
+        int rows = (int) Math.ceil(cells / (double) columns);
         int width = getWidth();
         int height = getHeight();
         int cellWidth = Math.max(10, width / columns);
         int cellHeight = Math.max(10, height / rows);
-        for (int i = 0; i < blocks.length; i++) {
+        for (int i = 0; i < cells; i++) {
             int row = i / columns;
             int col = i % columns;
             int x = col * cellWidth;
             int y = row * cellHeight;
-            Color color = colorFor(blocks[i]);
+            Color color = colorFor(firstOccupied(i * blocksPerCell, Math.min(capacity, (i + 1) * blocksPerCell)));
             g.setColor(color);
             g.fillRect(x + 1, y + 1, cellWidth - 2, cellHeight - 2);
         }
     }
 
+    /**
+     * Primer bloque ocupado en [from, to) usando el mapa de bits, o null si el rango está libre.
+     */
+    private DiskBlock firstOccupied(int from, int to) {
+        int occupied = disk.freeRunEnd(from);
+        return occupied < to ? disk.getBlock(occupied) : null;
+    }
+
     private Color colorFor(DiskBlock block) {
-        if (block.isFree()) {
+        if (block == null || block.isFree()) {
             return Color.LIGHT_GRAY;
         }
         int hash = Math.abs(block.getOwnerId().hashCode());
@@ -1,7 +1,6 @@
 package proyecto2so.ui;
 
 import javax.swing.table.AbstractTableModel;
-import proyecto2so.core.SystemConfig;
 import proyecto2so.filesystem.DirectoryNode;
 import proyecto2so.filesystem.FileEntry;
 import proyecto2so.filesystem.FileSystemNode;
@@ -11,13 +10,16 @@ import proyecto2so.filesystem.FileSystemNode;
  */
 public class FileAllocationTableModel extends AbstractTableModel {
 
-    private final String[][] rows = new String[SystemConfig.MAX_BLOCKS][6];
+    private static final int INITIAL_ROWS = 64;
+
+    // Cada archivo ocupa al menos un bloque, así que la capacidad del disco acota las filas
+    private final int maxRows;
+    private String[][] rows;
     private int rowCount;
 
-    public FileAllocationTableModel() {
-        for (int i = 0; i < rows.length; i++) {
-            rows[i] = new String[6];
-        }
+    public FileAllocationTableModel(int diskBlocks) {
+        this.maxRows = Math.max(1, diskBlocks);
+        this.rows = new String[Math.min(INITIAL_ROWS, maxRows)][];
     }
 
     public void updateFrom(FileSystemNode root) {
@@ -32,6 +34,9 @@ public class FileAllocationTableModel extends AbstractTableModel {
         }
         if (!node.isDirectory()) {
             FileEntry file = (FileEntry) node;
+            if (!ensureRow(rowCount)) {
+                return;
+            }
             rows[rowCount][0] = file.getName();
             rows[rowCount][1] = String.valueOf(file.getBlockCount());
             rows[rowCount][2] = String.valueOf(file.getFirstBlockIndex());
@@ -47,6 +52,21 @@ public class FileAllocationTableModel extends AbstractTableModel {
         }
     }
 
+    private boolean ensureRow(int row) {
+        if (row >= maxRows) {
+            return false;
+        }
+        if (row == rows.length) {
+            String[][] grown = new String[Math.min(maxRows, rows.length * 2)][];
+            System.arraycopy(rows, 0, grown, 0, rows.length);
+            rows = grown;
+        }
+        if (rows[row] == null) {
+            rows[row] = new String[6];
+        }
+        return true;
+    }
+
     @Override
     public int getRowCount() {
         return rowCount;
@@ -19,6 +19,7 @@ import javax.swing.JSplitPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField; // Added import for JTextField
 import javax.swing.JTree;
+import javax.swing.SwingUtilities;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreePath;
@@ -26,24 +27,29 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.concurrent.locks.ReentrantLock;
 import proyecto2so.core.SystemConfig;
 import proyecto2so.filesystem.FileSystemNode;
 import proyecto2so.filesystem.FileSystemService;
 import proyecto2so.filesystem.FileEntry; // Added import for FileEntry
+import proyecto2so.io.CompletionListener;
+import proyecto2so.io.FileOperationHandler;
+import proyecto2so.io.VolumeEngine;
+import proyecto2so.io.VirtualProcessRunner;
 import proyecto2so.persistence.PersistenceService;
 import proyecto2so.process.OperationType;
 import proyecto2so.process.ProcessControlBlock;
 import proyecto2so.process.ProcessQueue;
 import proyecto2so.process.ProcessState;
 import proyecto2so.scheduler.DiskRequest;
-import proyecto2so.scheduler.DiskRequestQueue;
-import proyecto2so.scheduler.DiskScheduler;
-import proyecto2so.scheduler.FifoScheduler;
+import proyecto2so.scheduler.IoStats;
 import proyecto2so.scheduler.SchedulerFactory;
+import proyecto2so.storage.AllocationStrategy;
+import proyecto2so.storage.BlockChain;
 import proyecto2so.storage.BufferManager;
 import proyecto2so.storage.BufferPolicy;
 import proyecto2so.storage.Disk;
-import proyecto2so.storage.DiskBlock;
+import proyecto2so.storage.Volume;
 
 /**
  * Ventana principal de Swing: orquesta la interfaz y los eventos de usuario.
@@ -53,34 +59,68 @@ public class MainWindow extends JFrame {
     private final FileSystemService fileSystem;
     private final Disk disk;
     private final BufferManager buffer;
-    private final ProcessQueue processQueue = new ProcessQueue();
-    private final DiskRequestQueue requestQueue = new DiskRequestQueue();
+    private final ProcessQueue processQueue;
     private final PersistenceService persistence;
-    private DiskScheduler scheduler = new FifoScheduler();
+    private final Volume volume;
+    private final VolumeEngine engine;
+    private final VirtualProcessRunner processRunner;
+    private final ReentrantLock lock;
 
     private int pidSequence = 1;
 
+    // Finalizaciones aún no mostradas; las escribe el hilo del disco con el candado tomado
+    private final StringBuilder pendingLog = new StringBuilder();
+    private boolean refreshScheduled;
+
     private final JTree tree;
     private final DiskPanel diskPanel;
-    private final FileAllocationTableModel fatModel = new FileAllocationTableModel();
-    private final ProcessTableModel processModel = new ProcessTableModel();
+    private final FileAllocationTableModel fatModel;
+    private final ProcessTableModel processModel;
     private final BufferTableModel bufferModel = new BufferTableModel();
     private final JComboBox<String> modeSelector = new JComboBox<>(new String[]{"Administrador", "Usuario"});
-    private final JComboBox<String> schedulerSelector = new JComboBox<>(new String[]{"FIFO", "SSTF", "SCAN", "C-SCAN"});
-    private final JComboBox<String> bufferPolicySelector = new JComboBox<>(new String[]{"FIFO", "LRU", "LFU"});
+    private final JComboBox<String> schedulerSelector = new JComboBox<>(SchedulerFactory.NAMES);
+    private final JComboBox<String> bufferPolicySelector = new JComboBox<>(
+            new String[]{"FIFO", "LRU", "LFU", "CLOCK", "TWO_Q", "ARC", "W_TINY_LFU"});
+    private final JComboBox<String> allocationSelector = new JComboBox<>(
+            new String[]{"LINKED", "FIRST_FIT_EXTENT", "BEST_FIT_EXTENT", "NEXT_FIT"});
+    private final JCheckBox writeBackCheck = new JCheckBox("Write-back");
+    private final JCheckBox readAheadCheck = new JCheckBox("Read-ahead", true);
+    private final JCheckBox virtualThreadsCheck = new JCheckBox("Hilos virtuales");
     private final JLabel diskStatsLabel = new JLabel();
     private final JLabel bufferStatsLabel = new JLabel();
+    private final JLabel ioStatsLabel = new JLabel();
     private final JTextField userField = new JTextField(SystemConfig.ROOT_USER, 10);
+    private final JTextArea ioLog = new JTextArea(6, 40);
+
+    private static final int MAX_LOG_CHARS = 64 * 1024;
 
-    public MainWindow(FileSystemService fs, Disk disk, BufferManager buffer) {
+    public MainWindow(SystemConfig config, FileSystemService fs, Volume volume, BufferManager buffer) {
         super("Simulador Sistema de Archivos - Proyecto 2 SO");
         this.fileSystem = fs;
-        this.disk = disk;
+        this.volume = volume;
+        this.disk = volume.getLogicalDisk();
         this.buffer = buffer;
-        this.persistence = new PersistenceService(fileSystem, disk, processQueue, requestQueue, buffer);
+        this.processQueue = new ProcessQueue(config.getMaxProcesses());
+        this.fatModel = new FileAllocationTableModel(disk.capacity());
+        this.processModel = new ProcessTableModel(config.getMaxProcesses());
+        // Todos los discos comparten el candado porque el manejador toca el mismo sistema de archivos
+        this.lock = new ReentrantLock(true);
+        this.engine = new VolumeEngine(volume, config.getMaxProcesses(), (String) schedulerSelector.getSelectedItem(),
+                new FileOperationHandler(fs, disk, buffer), lock);
+        this.persistence = new PersistenceService(fileSystem, volume, processQueue, engine.getQueues(), buffer);
+        this.processRunner = new VirtualProcessRunner(engine, processQueue, config.getMaxProcesses());
+        if (config.getDiskFile() != null) {
+            openTreeImage(config.getDiskFile() + ".tree");
+        }
+        engine.addListener(new CompletionListener() {
+            @Override
+            public void requestCompleted(DiskRequest request, boolean success) {
+                onRequestCompleted(request, success);
+            }
+        });
 
         this.tree = new JTree(buildTreeModel());
-        this.diskPanel = new DiskPanel(disk);
+        this.diskPanel = new DiskPanel(this.disk);
 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setPreferredSize(new Dimension(1200, 720));
@@ -93,6 +133,7 @@ public class MainWindow extends JFrame {
         setLocationRelativeTo(null);
         updateDiskStats();
         updateUserFieldState();
+        engine.start();
     }
 
     private JPanel buildTopBar() {
@@ -106,6 +147,11 @@ public class MainWindow extends JFrame {
         selectors.add(schedulerSelector);
         selectors.add(new JLabel("Buffer:"));
         selectors.add(bufferPolicySelector);
+        selectors.add(writeBackCheck);
+        selectors.add(readAheadCheck);
+        selectors.add(new JLabel("Asignacion:"));
+        selectors.add(allocationSelector);
+        selectors.add(virtualThreadsCheck);
 
         JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 4));
         JButton btnDir = new JButton("Crear Directorio");
@@ -115,8 +161,10 @@ public class MainWindow extends JFrame {
         JButton btnEdit = new JButton("Editar Archivo");
         JButton btnRename = new JButton("Renombrar");
         JButton btnSave = new JButton("Guardar");
+        JButton btnSaveIncremental = new JButton("Guardar Cambios");
         JButton btnLoad = new JButton("Cargar");
         JButton btnDataset = new JButton("Dataset CSV");
+        JButton btnSync = new JButton("Sincronizar");
         buttons.add(btnDir);
         buttons.add(btnFile);
         buttons.add(btnDelete);
@@ -124,10 +172,13 @@ public class MainWindow extends JFrame {
         buttons.add(btnEdit);
         buttons.add(btnRename);
         buttons.add(btnSave);
+        buttons.add(btnSaveIncremental);
         buttons.add(btnLoad);
         buttons.add(btnDataset);
+        buttons.add(btnSync);
         buttons.add(diskStatsLabel);
         buttons.add(bufferStatsLabel);
+        buttons.add(ioStatsLabel);
 
         container.add(selectors, BorderLayout.NORTH);
         container.add(buttons, BorderLayout.SOUTH);
@@ -135,15 +186,64 @@ public class MainWindow extends JFrame {
         schedulerSelector.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                scheduler = SchedulerFactory.create((String) schedulerSelector.getSelectedItem());
+                engine.setScheduler((String) schedulerSelector.getSelectedItem());
+                lock.lock();
+                try {
+                    updateIoStats();
+                } finally {
+                    lock.unlock();
+                }
             }
         });
 
         bufferPolicySelector.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                buffer.setPolicy(BufferPolicy.valueOf((String) bufferPolicySelector.getSelectedItem()));
-                updateBufferStats();
+                lock.lock();
+                try {
+                    buffer.setPolicy(BufferPolicy.valueOf((String) bufferPolicySelector.getSelectedItem()));
+                    updateBufferStats();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+
+        writeBackCheck.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                lock.lock();
+                try {
+                    buffer.setWriteBack(writeBackCheck.isSelected());
+                    refreshAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+
+        readAheadCheck.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                lock.lock();
+                try {
+                    buffer.setReadAhead(readAheadCheck.isSelected());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+
+        allocationSelector.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                lock.lock();
+                try {
+                    fileSystem.getAllocator().setStrategy(
+                            AllocationStrategy.valueOf((String) allocationSelector.getSelectedItem()));
+                } finally {
+                    lock.unlock();
+                }
             }
         });
 
@@ -199,7 +299,14 @@ public class MainWindow extends JFrame {
         btnSave.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                handleSaveSnapshot();
+                handleSaveSnapshot(false);
+            }
+        });
+
+        btnSaveIncremental.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                handleSaveSnapshot(true);
             }
         });
 
@@ -217,6 +324,19 @@ public class MainWindow extends JFrame {
             }
         });
 
+        btnSync.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                lock.lock();
+                try {
+                    buffer.sync();
+                    refreshAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+
         return container;
     }
 
@@ -239,8 +359,14 @@ public class MainWindow extends JFrame {
         JSplitPane mainSplit = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, leftSplit, rightPanel);
         mainSplit.setDividerLocation(500);
 
+        ioLog.setEditable(false);
+        ioLog.setLineWrap(true);
+        JScrollPane logScroll = new JScrollPane(ioLog);
+        logScroll.setPreferredSize(new Dimension(1200, 110));
+
         JPanel container = new JPanel(new BorderLayout());
         container.add(mainSplit, BorderLayout.CENTER);
+        container.add(logScroll, BorderLayout.SOUTH);
         return container;
     }
 
@@ -288,23 +414,54 @@ public class MainWindow extends JFrame {
     }
 
     public void refreshAll() {
-        refreshTree();
-        fatModel.updateFrom(fileSystem.getRoot());
-        processModel.updateFrom(processQueue);
-        bufferModel.updateFrom(buffer);
-        diskPanel.repaint();
-        updateDiskStats();
-        updateBufferStats();
+        lock.lock();
+        try {
+            refreshTree();
+            fatModel.updateFrom(fileSystem.getRoot());
+            processModel.updateFrom(processQueue);
+            bufferModel.updateFrom(buffer);
+            diskPanel.repaint();
+            updateDiskStats();
+            updateBufferStats();
+            updateIoStats();
+        } finally {
+            lock.unlock();
+        }
     }
 
     private void updateDiskStats() {
-        String text = "Bloques libres: " + disk.getFreeBlockCount() + " / " + disk.capacity()
-                + " | Cabezal: " + disk.getHeadPosition();
-        diskStatsLabel.setText(text);
+        StringBuilder text = new StringBuilder("Bloques libres: ").append(disk.getFreeBlockCount())
+                .append(" / ").append(disk.capacity());
+        if (volume.getDiskCount() == 1) {
+            text.append(" | Cabezal: ").append(disk.getHeadPosition());
+        } else {
+            text.append(" | Cabezales:");
+            for (int i = 0; i < volume.getDiskCount(); i++) {
+                text.append(i == 0 ? " " : ", ").append(volume.getMember(i).getHeadPosition());
+            }
+        }
+        diskStatsLabel.setText(text.toString());
+    }
+
+    private void updateIoStats() {
+        IoStats stats = engine.getStats();
+        String text = engine.getSchedulerName() + ": " + stats.getCount() + " E/S"
+                + " | Recorrido: " + stats.getTotalTravel()
+                + " | " + String.format("%.1f", stats.getThroughput()) + " E/S/s"
+                + " | Media: " + formatMillis(Math.round(stats.getMeanLatency()))
+                + " | p99: " + formatMillis(stats.getPercentile(99));
+        ioStatsLabel.setText(text);
+    }
+
+    private static String formatMillis(long micros) {
+        return String.format("%.2f ms", micros / 1000.0);
     }
 
     private void updateBufferStats() {
-        String text = "Buffer Hits: " + buffer.getHits() + " | Misses: " + buffer.getMisses();
+        String text = "Buffer Hits: " + buffer.getHits() + " | Misses: " + buffer.getMisses()
+                + " | Prefetch hits: " + buffer.getPrefetchHits() + " | Prefetch desperdiciados: "
+                + buffer.getPrefetchWasted() + " | Sucios: " + buffer.getDirtyCount()
+                + " | Escritos: " + buffer.getFlushedBlocks();
         bufferStatsLabel.setText(text);
     }
 
@@ -408,7 +565,13 @@ public class MainWindow extends JFrame {
         if (path == null) {
             return;
         }
-        FileEntry file = fileSystem.getFile(path);
+        FileEntry file;
+        lock.lock();
+        try {
+            file = fileSystem.getFile(path);
+        } finally {
+            lock.unlock();
+        }
         if (file == null) {
             JOptionPane.showMessageDialog(this, "El archivo no existe");
             return;
@@ -441,7 +604,15 @@ public class MainWindow extends JFrame {
         if (path == null) {
             return;
         }
-        FileEntry file = fileSystem.getFile(path);
+        FileEntry file;
+        String data;
+        lock.lock();
+        try {
+            file = fileSystem.getFile(path);
+            data = file == null ? null : fileSystem.readFileData(file);
+        } finally {
+            lock.unlock();
+        }
         if (file == null) {
             JOptionPane.showMessageDialog(this, "El archivo no existe");
             return;
@@ -450,7 +621,7 @@ public class MainWindow extends JFrame {
             showRestricted();
             return;
         }
-        JTextArea area = new JTextArea(fileSystem.readFileData(file), 10, 40);
+        JTextArea area = new JTextArea(data, 10, 40);
         area.setLineWrap(true);
         area.setWrapStyleWord(true);
         area.setCaretPosition(0);
@@ -468,24 +639,47 @@ public class MainWindow extends JFrame {
         if (result != JOptionPane.OK_OPTION) {
             return;
         }
-        boolean ok = fileSystem.updateFileContent(path, area.getText(), publicCheck.isSelected());
+        boolean ok;
+        lock.lock();
+        try {
+            ok = fileSystem.updateFileContent(path, area.getText(), publicCheck.isSelected());
+        } finally {
+            lock.unlock();
+        }
         JOptionPane.showMessageDialog(this, ok ? "Archivo actualizado" : "No se pudo actualizar el archivo");
         if (ok) {
             refreshAll();
         }
     }
 
-    private void handleSaveSnapshot() {
+    /**
+     * Con {@code incremental} guarda solo los bloques modificados desde el último snapshot; para
+     * recuperarlo se carga la base y luego cada incremental en orden.
+     */
+    private void handleSaveSnapshot(boolean incremental) {
         JFileChooser chooser = new JFileChooser();
-        chooser.setDialogTitle("Guardar snapshot");
-        chooser.setSelectedFile(new File("snapshot.txt"));
+        chooser.setDialogTitle(incremental ? "Guardar cambios desde el ultimo snapshot" : "Guardar snapshot");
+        chooser.setSelectedFile(new File(incremental ? "snapshot-cambios.txt" : "snapshot.txt"));
         int option = chooser.showSaveDialog(this);
         if (option != JFileChooser.APPROVE_OPTION) {
             return;
         }
         File file = chooser.getSelectedFile();
-        boolean ok = persistence.save(file.getAbsolutePath());
-        JOptionPane.showMessageDialog(this, ok ? "Estado guardado" : "No se pudo guardar el archivo");
+        boolean ok;
+        boolean hadBase;
+        lock.lock();
+        try {
+            hadBase = persistence.getSnapshotId() != 0;
+            ok = incremental ? persistence.saveIncremental(file.getAbsolutePath())
+                    : persistence.save(file.getAbsolutePath());
+        } finally {
+            lock.unlock();
+        }
+        String message = "Estado guardado";
+        if (incremental && !hadBase) {
+            message = "No habia un snapshot previo: se guardo el estado completo";
+        }
+        JOptionPane.showMessageDialog(this, ok ? message : "No se pudo guardar el archivo");
     }
 
     private void handleLoadSnapshot() {
@@ -496,12 +690,28 @@ public class MainWindow extends JFrame {
             return;
         }
         File file = chooser.getSelectedFile();
-        int maxPid = persistence.load(file.getAbsolutePath());
+        int maxPid;
+        boolean staleBase;
+        lock.lock();
+        try {
+            staleBase = persistence.isIncremental(file.getAbsolutePath()) && persistence.hasChangesSinceSnapshot();
+            maxPid = staleBase ? -1 : persistence.load(file.getAbsolutePath());
+        } finally {
+            lock.unlock();
+        }
+        if (staleBase) {
+            JOptionPane.showMessageDialog(this, "El disco cambio desde el ultimo snapshot: el incremental solo se "
+                    + "puede aplicar sobre su base. Cargue de nuevo la base y los incrementales previos.");
+            return;
+        }
         if (maxPid == -1) {
-            JOptionPane.showMessageDialog(this, "No se pudo cargar el archivo");
+            // Un incremental solo se acepta sobre su base, que debe haberse cargado antes
+            JOptionPane.showMessageDialog(this, "No se pudo cargar el archivo (si es incremental, cargue antes su base)");
             return;
         }
         pidSequence = Math.max(pidSequence, maxPid + 1);
+        // El snapshot puede traer solicitudes pendientes
+        engine.wake();
         refreshAll();
         JOptionPane.showMessageDialog(this, "Estado cargado correctamente");
     }
@@ -550,7 +760,7 @@ public class MainWindow extends JFrame {
                 String parent = columns[1].trim();
                 String name = columns[2].trim();
                 if (type.equals("DIR")) {
-                    if (fileSystem.createDirectory(parent, name) != null) {
+                    if (createDirectoryLocked(parent, name)) {
                         createdDirs++;
                     } else {
                         failures++;
@@ -572,8 +782,7 @@ public class MainWindow extends JFrame {
                     if (columns.length > 5) {
                         content = columns[5];
                     }
-                    if (fileSystem.createFile(parent, name, Math.max(1, blocks), SystemConfig.ROOT_USER,
-                            publicReadable, content, 0) != null) {
+                    if (createFileLocked(parent, name, Math.max(1, blocks), publicReadable, content)) {
                         createdFiles++;
                     } else {
                         failures++;
@@ -596,165 +805,184 @@ public class MainWindow extends JFrame {
         return new int[]{createdDirs, createdFiles, failures};
     }
 
+    private boolean createDirectoryLocked(String parent, String name) {
+        lock.lock();
+        try {
+            return fileSystem.createDirectory(parent, name) != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean createFileLocked(String parent, String name, int blocks, boolean publicReadable, String content) {
+        lock.lock();
+        try {
+            return fileSystem.createFile(parent, name, blocks, SystemConfig.ROOT_USER, publicReadable, content, 0) != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Crea el PCB y entrega su solicitud al motor de E/S; el resultado llega después por
+     * {@link #onRequestCompleted} sin bloquear la interfaz.
+     */
     private void submitProcess(OperationType op, String path, int blocks, String payload) {
         ProcessControlBlock pcb = new ProcessControlBlock(pidSequence++, op, path, getCurrentUser());
         pcb.setRequestedBlocks(blocks);
         pcb.setState(ProcessState.READY);
         pcb.setPayload(payload == null ? "" : payload);
-        if (!processQueue.enqueue(pcb)) {
-            JOptionPane.showMessageDialog(this, "La cola de procesos esta llena");
+        if (virtualThreadsCheck.isSelected()) {
+            int[] targetBlocks;
+            lock.lock();
+            try {
+                targetBlocks = blocksFor(pcb);
+            } finally {
+                lock.unlock();
+            }
+            // El proceso espera por sí mismo un lugar en la tabla, así que aquí no hay cola llena
+            processRunner.spawn(pcb, targetBlocks);
             return;
         }
-        processModel.updateFrom(processQueue);
-        if (!enqueueRequest(pcb)) {
-            processQueue.removeByPid(pcb.getPid());
+        String error = null;
+        lock.lock();
+        try {
+            if (!processQueue.enqueue(pcb)) {
+                error = "La cola de procesos esta llena";
+            } else if (!enqueueRequest(pcb)) {
+                processQueue.removeByPid(pcb.getPid());
+                error = "La cola de E/S esta llena";
+            }
             processModel.updateFrom(processQueue);
-            return;
+        } finally {
+            lock.unlock();
+        }
+        if (error != null) {
+            JOptionPane.showMessageDialog(this, error);
         }
-        processModel.updateFrom(processQueue);
-        dispatchRequests();
     }
 
     private boolean enqueueRequest(ProcessControlBlock pcb) {
-        int targetBlock = estimateTargetBlock(pcb.getTargetPath());
-        DiskRequest request = new DiskRequest(pcb, targetBlock);
-        if (!requestQueue.enqueue(request)) {
-            JOptionPane.showMessageDialog(this, "La cola de E/S esta llena");
-            return false;
-        }
-        pcb.setState(ProcessState.BLOCKED);
-        return true;
+        return engine.submit(new DiskRequest(pcb, blocksFor(pcb)));
     }
 
-    private void dispatchRequests() {
-        while (requestQueue.size() > 0) {
-            int index = scheduler.selectNext(disk.getHeadPosition(), requestQueue);
-            if (index == -1) {
-                break;
+    /**
+     * Bloques que toca la operación del proceso: toda la cadena del archivo al leerlo o borrarlo,
+     * y al crearlo los que le daría el asignador con la estrategia elegida. Renombrar solo toca
+     * el primer bloque, y lo que no tiene bloques (directorios, rutas inexistentes) se reparte por
+     * el disco según la ruta.
+     */
+    private int[] blocksFor(ProcessControlBlock pcb) {
+        String path = pcb.getTargetPath();
+        OperationType op = pcb.getOperation();
+        FileEntry file = fileSystem.getFile(path);
+        if (file != null && file.getFirstBlockIndex() != -1) {
+            BlockChain chain = file.getChain();
+            if ((op == OperationType.READ || op == OperationType.DELETE) && chain.getLength() > 0) {
+                int[] blocks = new int[chain.getLength()];
+                for (int i = 0; i < blocks.length; i++) {
+                    blocks[i] = chain.blockAt(i);
+                }
+                return blocks;
             }
-            DiskRequest request = requestQueue.dequeueAt(index);
-            ProcessControlBlock pcb = request.getPcb();
-            disk.setHeadPosition(request.getTargetBlock());
-            pcb.setState(ProcessState.RUNNING);
-            processModel.updateFrom(processQueue);
-            boolean success = executeOperation(pcb);
-            pcb.setState(ProcessState.TERMINATED);
-            processModel.updateFrom(processQueue);
-            String message = (success ? "Operacion completada" : "Operacion fallo")
-                    + "\nPlanificador: " + scheduler.getName()
-                    + "\nBloque atendido: " + request.getTargetBlock();
-            JOptionPane.showMessageDialog(this, message);
-            processQueue.removeByPid(pcb.getPid());
-            refreshAll();
+            return new int[]{file.getFirstBlockIndex()};
         }
-    }
-
-    private boolean executeOperation(ProcessControlBlock pcb) {
-        switch (pcb.getOperation()) {
-            case CREATE:
-                return performCreate(pcb);
-            case MKDIR:
-                return performMkdir(pcb);
-            case DELETE:
-                return fileSystem.deleteNode(pcb.getTargetPath());
-            case READ:
-                return performRead(pcb);
-            case UPDATE:
-                return performRename(pcb);
-            default:
-                return true;
+        if (op == OperationType.CREATE) {
+            int needed = Math.min(Math.max(1, pcb.getRequestedBlocks()), disk.getFreeBlockCount());
+            int[] blocks = fileSystem.getAllocator().planChain(needed);
+            if (blocks != null) {
+                return blocks;
+            }
         }
+        int capacity = Math.max(1, disk.capacity());
+        return new int[]{Math.abs(path.hashCode() % capacity)};
     }
 
-    private int estimateTargetBlock(String path) {
-        FileEntry file = fileSystem.getFile(path);
-        if (file != null && file.getFirstBlockIndex() != -1) {
-            return file.getFirstBlockIndex();
+    /**
+     * Reconstruye el árbol guardado junto a la imagen del disco y registra su escritura al salir.
+     * Solo si el árbol se reconstruyó se liberan los bloques que no alcanza (los que dejó una
+     * ejecución que terminó sin guardarlo); sin árbol guardado la imagen queda intacta y su
+     * contenido se recupera cargando un snapshot.
+     */
+    private void openTreeImage(final String treeFile) {
+        if (persistence.loadTree(treeFile)) {
+            int orphans = fileSystem.releaseUnreferencedBlocks();
+            if (orphans > 0) {
+                System.err.println("Se liberaron " + orphans + " bloques que ningun archivo de " + treeFile + " usa");
+            }
         }
-        int capacity = Math.max(1, disk.capacity());
-        int hash = Math.abs(path.hashCode());
-        return hash % capacity;
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                lock.lock();
+                try {
+                    if (!persistence.saveTree(treeFile)) {
+                        System.err.println("No se pudo guardar el arbol en " + treeFile);
+                    }
+                    volume.force();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }));
     }
 
-    private boolean performCreate(ProcessControlBlock pcb) {
-        String fullPath = pcb.getTargetPath();
-        String parent = parentOf(fullPath);
-        String name = nameOf(fullPath);
-        if (name.endsWith("/")) {
-            name = name.substring(0, name.length() - 1);
-        }
-        if (name.isEmpty()) {
-            return false;
+    /**
+     * Se ejecuta en el hilo del disco con el candado tomado: retira el proceso terminado, anota
+     * el resultado y agenda una sola actualización de la interfaz para todas las finalizaciones
+     * que se acumulen mientras tanto.
+     */
+    private void onRequestCompleted(DiskRequest request, boolean success) {
+        ProcessControlBlock pcb = request.getPcb();
+        processQueue.removeByPid(pcb.getPid());
+        pendingLog.append("PID ").append(pcb.getPid()).append(' ').append(pcb.getOperation())
+                .append(' ').append(pcb.getTargetPath()).append(success ? " -> OK" : " -> FALLO");
+        pendingLog.append(" | ").append(engine.getSchedulerName())
+                .append(" | Bloque: ").append(request.getTargetBlock());
+        if (request.getBlockCount() > 1) {
+            pendingLog.append('-').append(request.getLastBlock());
         }
-        String payload = pcb.getPayload() == null ? "" : pcb.getPayload();
-        boolean isPublic = true;
-        String content = null;
-        if (payload.startsWith("PRIVATE:")) {
-            isPublic = false;
-            content = payload.substring("PRIVATE:".length());
-        } else if (payload.startsWith("PUBLIC:")) {
-            isPublic = true;
-            content = payload.substring("PUBLIC:".length());
-        } else {
-            content = payload;
+        if (request.getBlockTotal() > request.getBlockCount()) {
+            pendingLog.append(" (").append(request.getBlockTotal()).append(" bloques en tramos)");
         }
-        return fileSystem.createFile(parent, name, Math.max(1, pcb.getRequestedBlocks()), pcb.getOwner(), isPublic, content, pcb.getPid()) != null;
-    }
-
-    private boolean performRead(ProcessControlBlock pcb) {
-        FileEntry file = fileSystem.getFile(pcb.getTargetPath());
-        if (file == null) {
-            return false;
+        if (request.isMerged()) {
+            pendingLog.append(" (fusionada)");
         }
-        int hitsBefore = buffer.getHits();
-        int missesBefore = buffer.getMisses();
-        StringBuilder builder = new StringBuilder();
-        int cursor = file.getFirstBlockIndex();
-        while (cursor != -1) {
-            DiskBlock block = disk.getBlock(cursor);
-            if (block == null || block.isFree()) {
-                break;
-            }
-            buffer.fetchBlock(cursor, block.getData());
-            builder.append(block.getData()).append('\n');
-            cursor = block.getNextIndex();
+        pendingLog
+                .append(" | Recorrido: ").append(request.getHeadTravel())
+                .append(" | Latencia: ").append(formatMillis(request.getLatency()));
+        if (pcb.getResult() != null) {
+            pendingLog.append(" | ").append(pcb.getResult());
         }
-        int hitDelta = buffer.getHits() - hitsBefore;
-        int missDelta = buffer.getMisses() - missesBefore;
-        JOptionPane.showMessageDialog(this, "Lectura completada:\n" + builder.toString().trim()
-                + "\nBuffer hits: " + hitDelta + " | miss: " + missDelta);
-        return true;
-    }
-
-    private boolean performMkdir(ProcessControlBlock pcb) {
-        String fullPath = pcb.getTargetPath();
-        String parent = parentOf(fullPath);
-        String name = nameOf(fullPath);
-        return fileSystem.createDirectory(parent, name) != null;
-    }
-
-    private boolean performRename(ProcessControlBlock pcb) {
-        String newName = pcb.getPayload();
-        if (newName == null || newName.trim().isEmpty()) {
-            return false;
+        pendingLog.append('\n');
+        if (!refreshScheduled) {
+            refreshScheduled = true;
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    flushCompletions();
+                }
+            });
         }
-        return fileSystem.renameNode(pcb.getTargetPath(), newName.trim());
     }
 
-    private String parentOf(String fullPath) {
-        int lastSlash = fullPath.lastIndexOf('/');
-        if (lastSlash <= 0) {
-            return "/";
+    private void flushCompletions() {
+        String lines;
+        lock.lock();
+        try {
+            refreshScheduled = false;
+            lines = pendingLog.toString();
+            pendingLog.setLength(0);
+            refreshAll();
+        } finally {
+            lock.unlock();
         }
-        return fullPath.substring(0, lastSlash);
-    }
-
-    private String nameOf(String fullPath) {
-        int lastSlash = fullPath.lastIndexOf('/');
-        if (lastSlash == -1) {
-            return fullPath;
+        ioLog.append(lines);
+        int excess = ioLog.getDocument().getLength() - MAX_LOG_CHARS;
+        if (excess > 0) {
+            ioLog.replaceRange("", 0, excess);
         }
-        return fullPath.substring(lastSlash + 1);
+        ioLog.setCaretPosition(ioLog.getDocument().getLength());
     }
 
     private String joinPath(String parent, String name) {
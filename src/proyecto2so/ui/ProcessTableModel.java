@@ -1,7 +1,6 @@
 package proyecto2so.ui;
 
 import javax.swing.table.AbstractTableModel;
-import proyecto2so.core.SystemConfig;
 import proyecto2so.process.ProcessControlBlock;
 import proyecto2so.process.ProcessQueue;
 
@@ -10,17 +9,19 @@ import proyecto2so.process.ProcessQueue;
  */
 public class ProcessTableModel extends AbstractTableModel {
 
-    private final String[][] rows = new String[SystemConfig.MAX_PROCESSES][5];
+    private final String[][] rows;
     private int rowCount;
 
+    public ProcessTableModel(int maxProcesses) {
+        this.rows = new String[Math.max(1, maxProcesses)][5];
+    }
+
     public void updateFrom(ProcessQueue queue) {
         rowCount = 0;
-        int limit = Math.min(queue.size(), rows.length);
+        ProcessControlBlock[] processes = queue.toArray();
+        int limit = Math.min(processes.length, rows.length);
         for (int i = 0; i < limit; i++) {
-            ProcessControlBlock pcb = queue.get(i);
-            if (pcb == null) {
-                continue;
-            }
+            ProcessControlBlock pcb = processes[i];
             rows[i][0] = String.valueOf(pcb.getPid());
             rows[i][1] = pcb.getOperation().name();
             rows[i][2] = pcb.getState().name();